@@ -0,0 +1,101 @@
+import java.util.SplittableRandom;
+
+/**
+ * A factory filling a given share of the cells of an ocean, with the
+ * species in the same proportions as MyFactory creates them.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class DensityFactory implements Factory
+{
+    // The shares of the creatures that are sharks, fish and whales;
+    // the rest are fishermen.
+    private static final double SHARK_SHARE = 0.015 / 0.115;
+    private static final double FISH_SHARE = 0.08 / 0.115;
+    private static final double WHALE_SHARE = 0.01 / 0.115;
+
+    // The share of the cells holding a creature.
+    private final double density;
+
+    /**
+     * Create a factory filling the given share of the cells.
+     * @param density The share of the cells, 0 <= density <= 1.
+     */
+    public DensityFactory(double density)
+    {
+        assert 0 <= density && density <= 1 : "Density outside [0, 1]";
+
+        this.density = density;
+    }
+
+    /**
+     * Optionally create an actor at a location.
+     * @param ocean The ocean to create the actor in.
+     * @param location Where to create it.
+     * @return The actor created, or null.
+     */
+    public Actor optionallyCreateActor(Ocean ocean, Location location)
+    {
+        int species = pick(Randomizer.current());
+        switch(species) {
+            case Species.SHARK:
+                return new Shark(true, ocean, location);
+            case Species.FISH:
+                return new Fish(true, ocean, location);
+            case Species.WHALE:
+                return new KillerWhale(true, ocean, location);
+            case Species.FISHERMAN:
+                return new Fisherman(ocean, location);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Optionally create a creature in a cell of a compact ocean.
+     * @param ocean The ocean to create the creature in.
+     * @param cell The cell to create it in.
+     */
+    public void optionallyCreateCreature(ArrayOcean ocean, int cell)
+    {
+        int species = pick(Randomizer.current());
+        if(species != Species.EMPTY) {
+            ocean.spawn(species, cell, true);
+        }
+    }
+
+    /**
+     * Set up the colors of the species, as MyFactory does.
+     * @param view The view to set the colors of.
+     */
+    public void setupColors(ColoredView view)
+    {
+        new MyFactory().setupColors(view);
+    }
+
+    /**
+     * Pick the species of a cell.
+     * @param rand The random generator to draw from.
+     * @return The species, or Species.EMPTY for an empty cell.
+     */
+    private int pick(SplittableRandom rand)
+    {
+        if(rand.nextDouble() >= density) {
+            return Species.EMPTY;
+        }
+        double share = rand.nextDouble();
+        if(share < SHARK_SHARE) {
+            return Species.SHARK;
+        }
+        share -= SHARK_SHARE;
+        if(share < FISH_SHARE) {
+            return Species.FISH;
+        }
+        share -= FISH_SHARE;
+        if(share < WHALE_SHARE) {
+            return Species.WHALE;
+        }
+        return Species.FISHERMAN;
+    }
+}
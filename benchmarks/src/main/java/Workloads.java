@@ -0,0 +1,195 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * The operations measured by the benchmarks, each set up on a populated
+ * ocean of a given size and density. The simulator lives in the default
+ * package, which the benchmark classes cannot name, so they fetch these
+ * operations by reflection once and then call them as plain suppliers.
+ * An operation returns what it computed, for the benchmark to consume.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class Workloads
+{
+    // The number of cells an operation on single cells cycles through.
+    private static final int SAMPLE_CELLS = 4096;
+    // The largest side of an off-screen image, in pixels.
+    private static final int IMAGE_SIZE = 600;
+
+    /**
+     * List the locations around cells of a populated ocean, one cell per call.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @return The operation.
+     */
+    public static Supplier<Object> adjacentLocations(int size, double density)
+    {
+        Ocean ocean = simulator(size, density, false).getOcean();
+        Location[] sample = sampleLocations(ocean);
+        int[] next = new int[1];
+        return () -> ocean.adjacentLocations(sample[next[0]++ & (SAMPLE_CELLS - 1)]);
+    }
+
+    /**
+     * List the free locations around cells of a populated ocean, one cell per call.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @return The operation.
+     */
+    public static Supplier<Object> freeAdjacentLocations(int size, double density)
+    {
+        Ocean ocean = simulator(size, density, false).getOcean();
+        Location[] sample = sampleLocations(ocean);
+        int[] next = new int[1];
+        return () -> ocean.getFreeAdjacentLocations(sample[next[0]++ & (SAMPLE_CELLS - 1)]);
+    }
+
+    /**
+     * Let the sharks of a populated ocean look for food, one shark per call.
+     * A fish that is eaten is replaced, so the ocean stays as populated.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @return The operation.
+     */
+    public static Supplier<Object> findFood(int size, double density)
+    {
+        Ocean ocean = simulator(size, density, false).getOcean();
+        List<Shark> sharks = new ArrayList<Shark>();
+        for(int cell = 0; cell < size * size; cell++) {
+            Actor actor = ocean.getObjectAt(cell);
+            if(actor instanceof Shark) {
+                sharks.add((Shark) actor);
+            }
+        }
+        if(sharks.isEmpty()) {
+            throw new IllegalStateException("The ocean holds no sharks");
+        }
+        int[] next = new int[1];
+        return () -> {
+            Shark shark = sharks.get(next[0]++ % sharks.size());
+            int eaten = shark.findFood();
+            if(eaten >= 0) {
+                new Fish(false, ocean, ocean.getLocation(eaten));
+            }
+            return eaten;
+        };
+    }
+
+    /**
+     * Clear and populate an ocean, once per call.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @param compact Whether to run on the compact engine.
+     * @return The operation.
+     */
+    public static Supplier<Object> populate(int size, double density, boolean compact)
+    {
+        Simulator simulator = simulator(size, density, compact);
+        return () -> {
+            simulator.reset();
+            return simulator.getOceanView();
+        };
+    }
+
+    /**
+     * Run a simulation one step per call, starting over once it dies out.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @param compact Whether to run on the compact engine.
+     * @return The operation.
+     */
+    public static Supplier<Object> simulateOneStep(int size, double density, boolean compact)
+    {
+        Simulator simulator = simulator(size, density, compact);
+        return () -> {
+            simulator.simulateOneStep();
+            if(!simulator.isViable()) {
+                simulator.reset();
+            }
+            return simulator.getOceanView();
+        };
+    }
+
+    /**
+     * Describe the population of a populated ocean, once per call.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @return The operation.
+     */
+    public static Supplier<Object> populationDetails(int size, double density)
+    {
+        OceanView ocean = simulator(size, density, false).getOceanView();
+        OceanStats stats = new OceanStats();
+        return () -> {
+            stats.reset();
+            return stats.getPopulationDetails(ocean);
+        };
+    }
+
+    /**
+     * Render a populated ocean into an off-screen image, as the simulator
+     * view renders it, and draw the image scaled, once per call.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @return The operation.
+     */
+    public static Supplier<Object> drawOcean(int size, double density)
+    {
+        OceanView ocean = simulator(size, density, false).getOceanView();
+        int scale = Math.max(1, IMAGE_SIZE / size);
+        BufferedImage screen = new BufferedImage(size * scale, size * scale,
+                                                 BufferedImage.TYPE_INT_RGB);
+        Graphics g = screen.getGraphics();
+        Map<Class, Color> colors = new HashMap<Class, Color>();
+        colors.put(Fish.class, Color.green);
+        colors.put(Shark.class, Color.blue);
+        colors.put(KillerWhale.class, Color.red);
+        colors.put(Fisherman.class, Color.black);
+        OceanImage image = new OceanImage(size, size);
+        return () -> {
+            image.render(ocean, OceanImage.palette(colors));
+            image.draw(g, screen.getWidth(), screen.getHeight());
+            return screen;
+        };
+    }
+
+    /**
+     * Create a populated simulation that does not check itself.
+     * @param size The depth and width of the ocean.
+     * @param density The share of cells holding a creature.
+     * @param compact Whether to run on the compact engine.
+     * @return The simulation.
+     */
+    private static Simulator simulator(int size, double density, boolean compact)
+    {
+        Simulator simulator = new Simulator(new DensityFactory(density), new MockView(),
+                                            size, size, compact);
+        simulator.setCheckLevel(CheckLevel.OFF);
+        return simulator;
+    }
+
+    /**
+     * Pick random locations of an ocean.
+     * @param ocean The ocean.
+     * @return SAMPLE_CELLS locations.
+     */
+    private static Location[] sampleLocations(Ocean ocean)
+    {
+        SplittableRandom rand = new SplittableRandom(Randomizer.SEED);
+        Location[] sample = new Location[SAMPLE_CELLS];
+        for(int i = 0; i < SAMPLE_CELLS; i++) {
+            sample[i] = ocean.getLocation(rand.nextInt(ocean.getDepth()),
+                                          rand.nextInt(ocean.getWidth()));
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Neighbourhood searches on a populated ocean: listing the adjacent and
+ * the free adjacent locations of a cell, and a shark looking for food.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OceanBenchmark
+{
+    @Param({"100", "500", "1000", "2000", "4000"})
+    public int size;
+
+    @Param({"0.05", "0.115", "0.3"})
+    public double density;
+
+    private Supplier<Object> adjacent, free, food;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        adjacent = Workload.load("adjacentLocations", size, density);
+        free = Workload.load("freeAdjacentLocations", size, density);
+        food = Workload.load("findFood", size, density);
+    }
+
+    @Benchmark
+    public Object adjacentLocations()
+    {
+        return adjacent.get();
+    }
+
+    @Benchmark
+    public Object getFreeAdjacentLocations()
+    {
+        return free.get();
+    }
+
+    @Benchmark
+    public Object findFood()
+    {
+        return food.get();
+    }
+}
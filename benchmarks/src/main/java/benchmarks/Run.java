@@ -0,0 +1,37 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, writing the results as JSON,
+ * so that throughput and allocation rate can be compared across versions.
+ * Takes the usual JMH command line, for example a benchmark pattern or
+ * -p size=100,1000; the results go to jmh-result.json unless -rff names
+ * another file.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class Run
+{
+    // The file the results go to by default.
+    private static final String RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions options = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                       .parent(options)
+                       .addProfiler(GCProfiler.class)
+                       .resultFormat(ResultFormatType.JSON)
+                       .result(options.getResult().orElse(RESULT_FILE))
+                       .build())
+            .run();
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole-ocean work of a simulation: populating the ocean, which is
+ * measured through reset, and running one step, on either engine.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SimulatorBenchmark
+{
+    @Param({"100", "500", "1000", "2000", "4000"})
+    public int size;
+
+    @Param({"0.05", "0.115", "0.3"})
+    public double density;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private Supplier<Object> populate, step;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        populate = Workload.load("populate", size, density, compact);
+        step = Workload.load("simulateOneStep", size, density, compact);
+    }
+
+    @Benchmark
+    public Object populate()
+    {
+        return populate.get();
+    }
+
+    @Benchmark
+    public Object simulateOneStep()
+    {
+        return step.get();
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The work of showing a step: describing the population and drawing
+ * the ocean, as the simulator view does, into an off-screen image.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class ViewBenchmark
+{
+    @Param({"100", "500", "1000", "2000", "4000"})
+    public int size;
+
+    @Param({"0.05", "0.115", "0.3"})
+    public double density;
+
+    private Supplier<Object> details, draw;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        details = Workload.load("populationDetails", size, density);
+        draw = Workload.load("drawOcean", size, density);
+    }
+
+    @Benchmark
+    public Object getPopulationDetails()
+    {
+        return details.get();
+    }
+
+    @Benchmark
+    public Object showStatus()
+    {
+        return draw.get();
+    }
+}
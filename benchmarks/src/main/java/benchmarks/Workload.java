@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * Fetches an operation from the Workloads class of the default package,
+ * which code in a named package can only reach by reflection.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+final class Workload
+{
+    private Workload()
+    {
+    }
+
+    /**
+     * Set up an operation.
+     * @param name The name of the Workloads method setting it up.
+     * @param args The arguments of that method.
+     * @return The operation.
+     */
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> load(String name, Object... args)
+    {
+        try {
+            for(Method method : Class.forName("Workloads").getMethods()) {
+                if(method.getName().equals(name)) {
+                    return (Supplier<Object>) method.invoke(null, args);
+                }
+            }
+            throw new IllegalArgumentException("No workload " + name);
+        }
+        catch(InvocationTargetException e) {
+            throw new IllegalStateException("Setting up " + name + " failed", e.getCause());
+        }
+        catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set up " + name, e);
+        }
+    }
+}
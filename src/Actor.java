@@ -22,6 +22,12 @@ public interface Actor
      */
     public boolean isActive();
     
+    /**
+     * Make the actor inactive, removing it from the ocean, as when
+     * it is eaten or caught.
+     */
+    public void setDead();
+    
     /**
      * Return the animal's ocean.
      * @return The animal's ocean.
@@ -34,4 +40,10 @@ public interface Actor
      */
     abstract public Location getLocation();
     
+    /**
+     * Return the index of the animal's cell in its ocean.
+     * @return The animal's cell index.
+     */
+    abstract public int getCellIndex();
+    
 }
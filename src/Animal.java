@@ -1,5 +1,5 @@
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A class representing shared characteristics of animals.
@@ -9,41 +9,60 @@ import java.util.Random;
  */
 public abstract class Animal implements Actor
 {
-    // Characteristics shared by all animals (static oceans).
-    // A shared random number generator to control breeding.
-    protected static final Random rand = Randomizer.getRandom();
-
     // The animal's age.
     private int age;
     // Whether the animal is alive or not.
     private boolean alive;
     // The animal's ocean.
     private final Ocean ocean;
-    // The animal's position in the ocean.
-    private Location location;
+    // The animal's position in the ocean, as a cell index.
+    private int cell;
+    // The animal's species id, whose rules it follows.
+    private final int species;
+    // The animal's food level, which is increased by eating prey;
+    // always 0 for a species that never gets hungry.
+    private int foodLevel;
+    
+    /**
+     * Check the class invariants, if the animals of its ocean check
+     * themselves.
+     */
+    public void sane()
+    {
+        if(ocean.isSelfChecking()) {
+            invariants();
+        }
+    }
     
     /**
      * Internal class invariants:
      * Age not negative.
      * Animals turn at most maximum age plus 1.
      * Alive animals are at most of maximum age.
-     * Ocean and location are not null.
+     * Food level within sensible range.
+     * Ocean is not null and the cell is inside it.
      */
-    public void sane()
+    protected void invariants()
     {
         assert age >= 0 : "The age is negative";
         assert age <= getMaxAge() + 1 : "Too old"; 
+        assert 0 <= foodLevel && foodLevel <= getFoodValue() :
+            "Food level " + foodLevel + " outside range";
         assert ocean != null : "The ocean is null";
-        assert location != null : "The location is null";
+        assert ocean.inside(cell) : "The cell is outside the ocean";
     }
     
     /**
-     * Create a new animal at location in ocean.
+     * Create a new animal at location in ocean. An animal can be created
+     * as a new born (age zero and not hungry) or with a random age and
+     * food level.
      * 
+     * @param species The species id of the animal.
+     * @param randomAge If true, the animal will have random age and hunger level.
      * @param ocean The ocean currently occupied, not null.
      * @param location The location within the ocean.
      */
-    public Animal(Ocean ocean, Location location)
+    public Animal(int species, boolean randomAge, Ocean ocean, Location location)
     {
         assert ocean != null : "Ocean is null";
         assert ocean.inside(location) : "Location is not within the ocean";
@@ -51,17 +70,102 @@ public abstract class Animal implements Actor
         age = 0;
         alive = true;
         this.ocean = ocean;
+        this.species = species;
+        cell = -1;
         setLocation(location);
+        initialize(randomAge);
+    }
+    
+    /**
+     * Give the animal the food level of a new born, or a random age and
+     * food level.
+     * @param randomAge If true, the animal will have random age and hunger level.
+     */
+    private void initialize(boolean randomAge)
+    {
+        foodLevel = getFoodValue();
+        if(randomAge) {
+            setAge(rand().nextInt(getMaxAge()));
+            if(getFoodValue() > 0) {
+                foodLevel = rand().nextInt(getFoodValue()-1)+1;
+            }
+        }
         
-        this.sane();
+        sane();
     }
     
     /**
-     * Make this animal act - that is: make it do
-     * whatever it wants/needs to do.
+     * Bring a dead animal back as a new one at a free location, in the
+     * state its constructor would give it, for reuse from a pool.
+     * @param randomAge Whether the animal gets a random age.
+     * @param location The location within the ocean.
+     */
+    void revive(boolean randomAge, Location location)
+    {
+        assert !alive : "Reviving a live animal";
+        assert cell < 0 : "Reviving an animal that was not detached";
+        
+        age = 0;
+        alive = true;
+        setLocation(location);
+        initialize(randomAge);
+    }
+    
+    /**
+     * Detach a dead animal from its cell, as it goes into a pool.
+     * Until it is revived, checking it fails.
+     */
+    void detach()
+    {
+        assert !alive : "Detaching a live animal";
+        assert cell >= 0 : "Detaching an animal twice";
+        
+        cell = -1;
+    }
+    
+    /**
+     * This is what the animal does most of the time: it hunts for the
+     * prey of its species, if any. In the process, it might breed, die
+     * of hunger, or die of old age.
      * @param newAnimals A list to add newly born animals to.
      */
-    abstract public void act(List<Actor> newActors);
+    public void act(List<Actor> newAnimals)
+    {
+        sane();
+        
+        incrementAge();
+        incrementHunger();
+        if(isActive()) {
+            giveBirth(newAnimals);            
+            // Move towards a source of food if found.
+            int newCell = findFood();
+            if(newCell < 0) { 
+                // No food found - try to move to a free location.
+                newCell = ocean.freeAdjacentCell(cell);
+            }
+            // See if it was possible to move.
+            if(newCell >= 0) {
+                setLocation(newCell);
+            }
+            else {
+                // Overcrowding.
+                ocean.recordDeath(DeathCause.OVERCROWDING);
+                setDead();
+            }
+        }
+        
+        sane();
+    }
+    
+    /**
+     * Return the animal's age.
+     * @return The age.
+     */
+    public int getAge()
+    {
+        sane();
+        return age;
+    }
     
     /**
      * Set the animal's age to the given value.
@@ -76,7 +180,7 @@ public abstract class Animal implements Actor
         age = a;
         sane();
     }
-
+    
     /**
      * Increase the age. This could result in the animal's death.
      */
@@ -85,13 +189,82 @@ public abstract class Animal implements Actor
         sane();
         
         age++;
-        if(age > getMaxAge()) {
+        if(age > getMaxAge() && alive) {
+            ocean.recordDeath(DeathCause.AGE);
             setDead();
         }
         
         sane();
     }
     
+    /**
+     * Make this animal more hungry. This could result in its death.
+     */
+    private void incrementHunger()
+    {
+        sane();
+        
+        // One that died of age already does not starve as well.
+        if(getFoodValue() > 0 && --foodLevel <= 0 && alive) {
+            ocean.recordDeath(DeathCause.STARVATION);
+            setDead();
+        }
+        
+        sane();
+    }
+    
+    /**
+     * Tell the animal to look for prey of its species adjacent to its
+     * current location. Only the first live prey is eaten.
+     * @return The cell where food was found, or -1 if it wasn't.
+     */
+    int findFood()
+    {
+        sane();
+        
+        int where = ocean.findPrey(cell, species);
+        if(where >= 0) {
+            Actor prey = ocean.getObjectAt(where);
+            if(prey.isActive()) { 
+                ocean.recordDeath(DeathCause.PREDATION);
+                SimulationEvents.Predation event = new SimulationEvents.Predation();
+                if(event.shouldSample()) {
+                    event.predator = getClass().getName();
+                    event.prey = prey.getClass().getName();
+                    event.commit();
+                }
+                // Remove the dead prey from the ocean.
+                prey.setDead();
+                foodLevel = getFoodValue();
+                sane();
+                return where;
+            }
+        }
+        sane();
+        return -1;
+    }
+    
+    /**
+     * Return the food level of the animal.
+     * @return The number of steps it can go without eating.
+     */
+    public int getFoodLevel()
+    {
+        return foodLevel;
+    }
+    
+    /**
+     * Set the food level of the animal.
+     * @param level The number of steps it can go without eating,
+     *              0 <= level <= the food value of the species.
+     */
+    public void setFoodLevel(int level)
+    {
+        assert 0 <= level && level <= getFoodValue() : "Food level outside range";
+        
+        foodLevel = level;
+    }
+    
     /**
      * An animal can breed if it has reached the breeding age.
      * @return Whether the animal can breed.
@@ -112,6 +285,7 @@ public abstract class Animal implements Actor
         sane();
         
         int births = 0;
+        SplittableRandom rand = rand();
         if(canBreed() && rand.nextDouble() <= getBreedingProbability()) {
             births = rand.nextInt(getMaxLitterSize()) + 1;
         }
@@ -130,7 +304,7 @@ public abstract class Animal implements Actor
         
         return alive;
     }
-
+    
     /**
      * Indicate that the animal is no longer alive.
      * It is removed from the ocean.
@@ -142,14 +316,76 @@ public abstract class Animal implements Actor
         
         if (alive) {
             alive = false;
-            ocean.clear(location);
+            ocean.clear(cell);
+            SimulationEvents.Death event = new SimulationEvents.Death();
+            if(event.shouldSample()) {
+                event.species = getClass().getName();
+                event.age = age;
+                event.commit();
+            }
         }
         
         sane();
     }
     
-    abstract public Actor createActor(boolean randomAge, Ocean ocean, Location location);
+    /**
+     * Creates an actor of the animal's species.
+     * @param randomAge A random age is assigned if true.
+     * @param ocean The ocean currently occupied.
+     * @param location The location in the ocean to assign to the actor.
+     */
+    public Actor createActor(boolean randomAge, Ocean ocean, Location location)
+    {
+        return create(species, randomAge, ocean, location);
+    }
+    
+    /**
+     * Create an animal, reusing a dead one the ocean keeps if it pools
+     * animals.
+     * @param species The species id of the animal.
+     * @param randomAge If true the animal will have a random age.
+     * @param ocean The ocean currently occupied.
+     * @param location The free location within the ocean.
+     * @return The animal.
+     */
+    protected static Actor create(int species, boolean randomAge, Ocean ocean, Location location)
+    {
+        Actor reused = ocean.reuse(species, randomAge, location);
+        if(reused != null) {
+            return reused;
+        }
+        switch(species) {
+            case Species.FISH:
+                return new Fish(randomAge, ocean, location);
+            case Species.SHARK:
+                return new Shark(randomAge, ocean, location);
+            case Species.WHALE:
+                return new KillerWhale(randomAge, ocean, location);
+            default:
+                throw new IllegalArgumentException("Not a species of animal: " + species);
+        }
+    }
     
+    /**
+     * Return the rules of the species in the animal's ocean.
+     * This does not check the invariants, which depend on it.
+     * @return The species table.
+     */
+    protected SpeciesTable getSpeciesTable()
+    {
+        return ocean.getSpeciesTable();
+    }
+    
+    /**
+     * Return the random stream to control breeding and ages.
+     * This is the current stream of the simulation thread.
+     * @return The stream to draw from.
+     */
+    protected static SplittableRandom rand()
+    {
+        return Randomizer.current();
+    }
+     
      /**
      * Check whether or not this rabbit is to give birth at this step.
      * New births will be made into free adjacent locations.
@@ -160,16 +396,30 @@ public abstract class Animal implements Actor
         assert newAnimals != null : "New rabbits list is null";
         
         // New rabbits are born into adjacent locations.
-        // Get a list of adjacent free locations.
+        // Visit the adjacent locations in random order and fill free ones.
         Ocean ocean = getOcean();
-        List<Location> free = ocean.getFreeAdjacentLocations(getLocation());
         int births = breed();
-        for(int b = 0; b < births && free.size() > 0; b++) {
-            Location loc = free.remove(0);
-            newAnimals.add(createActor(false, ocean, loc));
+        if(births == 0) {
+            return;
+        }
+        int litter = births;
+        int order = ocean.randomOrder();
+        for(int i = 0; i < NeighbourTable.MAX && births > 0; i++) {
+            int next = ocean.adjacentCell(cell, order, i);
+            if(next >= 0 && ocean.getObjectAt(next) == null) {
+                newAnimals.add(createActor(false, ocean, ocean.getLocation(next)));
+                births--;
+            }
+        }
+        ocean.recordBirths(litter - births);
+        SimulationEvents.Birth event = new SimulationEvents.Birth();
+        if(event.shouldSample()) {
+            event.species = getClass().getName();
+            event.litter = litter - births;
+            event.commit();
         }
     }
-
+    
     /**
      * Return the animal's location.
      * @return The animal's location.
@@ -178,7 +428,16 @@ public abstract class Animal implements Actor
     {
         sane();
         
-        return location;
+        return ocean.getLocation(cell);
+    }
+    
+    /**
+     * Return the index of the animal's cell.
+     * @return The animal's cell index.
+     */
+    public int getCellIndex()
+    {
+        return cell;
     }
     
     /**
@@ -199,13 +458,26 @@ public abstract class Animal implements Actor
     public void setLocation(Location newLocation)
     {
         assert ocean.inside(newLocation) : "Location is not within the ocean";
+        
+        setLocation(ocean.cellIndex(newLocation));
+    }
+    
+    /**
+     * Place the animal in the given cell of its ocean.
+     * @param newCell The index of the animal's new cell, within ocean.
+     */
+    public void setLocation(int newCell)
+    {
+        assert ocean.inside(newCell) : "Cell is not within the ocean";
         // sane();  no, because this method is also used in constructor
         
-        if(location != null) {
-            ocean.clear(location);
+        if(cell >= 0) {
+            ocean.move(cell, newCell);
         }
-        location = newLocation;
-        ocean.place(this, newLocation);
+        else {
+            ocean.place(this, newCell);
+        }
+        cell = newCell;
         
         sane();
     }
@@ -214,26 +486,45 @@ public abstract class Animal implements Actor
      * Return the breeding probability of this animal.
      * @return The breeding probability of this animal.
      */
-    
-    abstract public double getBreedingProbability();
+    public double getBreedingProbability()
+    {
+        return ocean.getBreeding().getBreedingProbability(species);
+    }
     
     /**
      * Return the maximal litter size of this animal.
      * @return The maximal litter size of this animal.
      */
+    public int getMaxLitterSize()
+    {
+        return ocean.getBreeding().getMaxLitterSize(species);
+    }
     
-    abstract public int getMaxLitterSize();
-
     /** 
      * Return the breeding age of this animal.
      * @return The breeding age of this animal.
      */
-    abstract public int getBreedingAge();
+    public int getBreedingAge()
+    {
+        return ocean.getBreeding().getBreedingAge(species);
+    }
     
     /**
      * Return the maximal age of this animal.
      * @return The maximal age of this animal.
      */
-    abstract public int getMaxAge();
+    public int getMaxAge()
+    {
+        return getSpeciesTable().getMaxAge(species);
+    }
+    
+    /**
+     * Return the food level after eating, 0 if never hungry.
+     * @return The food value of the animal's species.
+     */
+    private int getFoodValue()
+    {
+        return getSpeciesTable().getFoodValue(species);
+    }
     
 }
@@ -0,0 +1,1323 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A compact ocean that keeps its creatures as primitive per-cell state
+ * instead of actor objects. Species, age, food level and bait live in
+ * flat arrays indexed by cell (row * width + col), and one step applies
+ * the same rules as Animal and Fisherman do in act().
+ * The rules of the animals are one loop body driven by the constants
+ * and predation matrix of a SpeciesTable, not code per species.
+ *
+ * A chunked ocean keeps the same state in square chunks of cells, and
+ * only for the chunks that hold creatures: a chunk is allocated when a
+ * creature first comes into it and released at the end of a step that
+ * leaves it empty. Memory then grows with the occupied area rather than
+ * with the area of the ocean, and steps, checks and copies for views only
+ * visit the chunks there are. The chunks are the tiles of a TileGrid and
+ * step as such, in four phases with a random stream per tile: the cells
+ * of a chunk and a border of one cell around it are copied into a window,
+ * the creatures of the chunk act in the window, and the window is copied
+ * back. A chunked ocean thus steps exactly as a dense one stepped in
+ * tiles of the same size, at any number of threads.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class ArrayOcean implements OceanView
+{
+    // The side length of a chunk of a chunked ocean.
+    public static final int CHUNK_SIZE = TileGrid.DEFAULT_TILE_SIZE;
+    // The most bytes writeRow appends per cell of a row.
+    public static final int ROW_RECORD_SIZE = 4 + 1 + 2 + 1 + 1 + 1;
+
+    // The depth and width of the ocean.
+    private final int depth, width;
+    // The state of the cells of a dense ocean, null when chunked.
+    // The species id in each cell, Species.EMPTY if the cell is free.
+    private final byte[] species;
+    // The age of the creature in each cell.
+    private final short[] age;
+    // The food level of sharks and whales, the catch level of fishermen.
+    private final byte[] food;
+    // The bait left to a fisherman.
+    private final byte[] bait;
+    // The parity of the last step in which the creature in a cell acted.
+    private final byte[] acted;
+    // The parity of the current step.
+    private byte parity;
+    // The number of creatures of each species.
+    private final int[] counts;
+    // The neighbourhoods of the cells.
+    private final NeighbourTable neighbours;
+    // The rules of the species.
+    private SpeciesTable table;
+    // The worker for stepping the whole ocean at once.
+    private final Worker sequential;
+    // The worker each thread spawns with, the sequential one but while
+    // populating in parallel.
+    private final ThreadLocal<Worker> spawner;
+    // Where births, deaths and the cost of acts are recorded, or null.
+    private SimulationMetrics metrics;
+    // Whether the acts of a step are timed.
+    private boolean timingActs;
+    // The cells of the creatures born in a step run in phases, if any.
+    private BitSet born;
+    // The workers for the tiles of a parallel step, if any.
+    private Worker[] workers;
+    // The division of a chunked ocean into chunks, or null when dense.
+    private final TileGrid chunkGrid;
+    // The chunk of each tile, null where there is none; or null when dense.
+    private final AtomicReferenceArray<Chunk> chunks;
+    // The tiles that have a chunk, in the first allocatedCount entries.
+    private int[] allocated;
+    private int allocatedCount;
+    // The workers stepping chunks, and those of them not in use.
+    private final List<Worker> chunkWorkers;
+    private final ConcurrentLinkedQueue<Worker> idleWorkers;
+
+    /**
+     * Internal class invariants:
+     * Counts agree with the cells.
+     * Ages and food levels within the ranges of their species.
+     * The listed chunks are there.
+     */
+    public void sane()
+    {
+        int[] found = new int[Species.COUNT];
+        if(chunks == null) {
+            saneCells(species, age, food, found);
+        }
+        else {
+            for(int i = 0; i < allocatedCount; i++) {
+                Chunk chunk = chunks.get(allocated[i]);
+                CheckLevel.check(chunk != null, "A listed chunk is missing");
+                saneCells(chunk.species, chunk.age, chunk.food, found);
+            }
+        }
+        for(int s = 1; s < Species.COUNT; s++) {
+            CheckLevel.check(found[s] == counts[s], "Count of species " + s + " is wrong");
+        }
+    }
+
+    /**
+     * Check the state of some cells and count their creatures.
+     * @param found Where to add the number of each species.
+     */
+    private static void saneCells(byte[] species, short[] age, byte[] food, int[] found)
+    {
+        for(int cell = 0; cell < species.length; cell++) {
+            int s = species[cell];
+            found[s]++;
+            CheckLevel.check(s == Species.EMPTY || age[cell] >= 0, "The age is negative");
+            CheckLevel.check(s == Species.EMPTY || food[cell] >= 0, "Food level negative");
+        }
+    }
+
+    /**
+     * Represent an empty dense ocean of the given dimensions.
+     * @param depth The depth of the ocean; positive.
+     * @param width The width of the ocean; positive.
+     */
+    public ArrayOcean(int depth, int width)
+    {
+        this(depth, width, false);
+    }
+
+    /**
+     * Represent an empty ocean of the given dimensions.
+     * @param depth The depth of the ocean; positive.
+     * @param width The width of the ocean; positive.
+     * @param chunked Whether to keep the cells in chunks, only where
+     *                there are creatures, rather than all at once.
+     */
+    public ArrayOcean(int depth, int width, boolean chunked)
+    {
+        assert depth > 0 : "Depth not positive";
+        assert width > 0 : "Width not positive";
+        assert (long) depth * width <= Integer.MAX_VALUE : "Too many cells";
+
+        this.depth = depth;
+        this.width = width;
+        counts = new int[Species.COUNT];
+        neighbours = NeighbourTable.forSize(depth, width);
+        table = new SpeciesTable();
+        if(chunked) {
+            species = null;
+            age = null;
+            food = null;
+            bait = null;
+            acted = null;
+            chunkGrid = new TileGrid(depth, width, CHUNK_SIZE);
+            chunks = new AtomicReferenceArray<Chunk>(chunkGrid.getTileCount());
+            allocated = new int[16];
+            chunkWorkers = new ArrayList<Worker>();
+            idleWorkers = new ConcurrentLinkedQueue<Worker>();
+        }
+        else {
+            int size = depth * width;
+            species = new byte[size];
+            age = new short[size];
+            food = new byte[size];
+            bait = new byte[size];
+            acted = new byte[size];
+            chunkGrid = null;
+            chunks = null;
+            chunkWorkers = null;
+            idleWorkers = null;
+        }
+        sequential = new Worker(counts);
+        spawner = ThreadLocal.withInitial(() -> sequential);
+    }
+
+    /**
+     * @return Whether the cells are kept in chunks.
+     */
+    public boolean isChunked()
+    {
+        return chunks != null;
+    }
+
+    /**
+     * @return The number of chunks allocated, 0 for a dense ocean.
+     */
+    public int getChunkCount()
+    {
+        return allocatedCount;
+    }
+
+    /**
+     * Empty the ocean, releasing all chunks.
+     */
+    public void clear()
+    {
+        if(chunks == null) {
+            Arrays.fill(species, (byte) Species.EMPTY);
+        }
+        else {
+            for(int i = 0; i < allocatedCount; i++) {
+                chunks.set(allocated[i], null);
+            }
+            allocatedCount = 0;
+        }
+        Arrays.fill(counts, 0);
+    }
+
+    /**
+     * Create a creature in a free cell, with the same initial state the
+     * constructor of its actor class would give it.
+     * @param s The species of the creature, not EMPTY.
+     * @param cell The index of the cell, which is free.
+     * @param randomAge If true, the creature gets a random age and food level.
+     */
+    public void spawn(int s, int cell, boolean randomAge)
+    {
+        assert s != Species.EMPTY : "Spawning an empty creature";
+        assert getSpeciesAt(cell) == Species.EMPTY : "Cell is not free";
+
+        Worker worker = spawner.get();
+        worker.rand = Randomizer.current();
+        if(chunks != null) {
+            worker.useChunk(allocate(chunkGrid.tileOf(cell)));
+            cell = chunkIndex(cell);
+        }
+        worker.spawn(s, cell, randomAge);
+    }
+
+    /**
+     * Fill the ocean row by row, each row drawing from the stream of a
+     * key derived from a key and the row, so the creatures spawned do
+     * not depend on how the rows are shared among threads. Filling a row
+     * may only spawn creatures into that row.
+     * Pre-condition: the ocean is empty.
+     * @param pool The pool to fill the rows on, or null to fill them in
+     *             order on the calling thread.
+     * @param key The key the streams of the rows derive from.
+     * @param fillRow Fills a row, given the row.
+     */
+    public void populate(ForkJoinPool pool, long key, IntConsumer fillRow)
+    {
+        if(pool == null) {
+            Randomizer.forEach(null, key, depth, fillRow);
+            return;
+        }
+        // Rows filled at the same time spawn with workers of their own.
+        List<Worker> fillers = new ArrayList<Worker>();
+        ConcurrentLinkedQueue<Worker> idleFillers = new ConcurrentLinkedQueue<Worker>();
+        Randomizer.forEach(pool, key, depth, row -> {
+            Worker worker = idleFillers.poll();
+            if(worker == null) {
+                worker = new Worker(new int[Species.COUNT]);
+                synchronized(fillers) {
+                    fillers.add(worker);
+                }
+            }
+            spawner.set(worker);
+            try {
+                fillRow.accept(row);
+            }
+            finally {
+                spawner.remove();
+                idleFillers.add(worker);
+            }
+        });
+        for(Worker worker : fillers) {
+            for(int s = 0; s < Species.COUNT; s++) {
+                counts[s] += worker.counts[s];
+            }
+        }
+    }
+
+    /**
+     * Let every creature act once. Creatures born or moved during the
+     * step are marked, so that each acts at most once per step.
+     * A chunked ocean steps its chunks on the calling thread, with
+     * streams derived from a key drawn from the current stream.
+     */
+    public void simulateOneStep()
+    {
+        if(chunks != null) {
+            simulateOneStep(null, Randomizer.current().nextLong());
+            return;
+        }
+        parity ^= 1;
+        sequential.act(0, depth, 0, width);
+    }
+
+    /**
+     * Set where births, deaths and the cost of acts are recorded.
+     * @param metrics The metrics, or null to record nothing.
+     */
+    public void setMetrics(SimulationMetrics metrics)
+    {
+        this.metrics = metrics;
+        timingActs = false;
+    }
+
+    /**
+     * Choose whether the acts of the following steps are timed, each
+     * act being recorded in the metrics by species.
+     * @param on Whether to time acts; only if there are metrics.
+     */
+    public void setTimingActs(boolean on)
+    {
+        assert !on || metrics != null : "No metrics to record in";
+
+        timingActs = on;
+    }
+
+    /**
+     * Let the creatures of a dense ocean take a step in the phases of a
+     * pipeline, each phase over all creatures before the next, drawing
+     * from the current stream.
+     * @param pipeline The pipeline.
+     */
+    public void simulateOneStep(StepPipeline pipeline)
+    {
+        assert chunks == null : "The ocean is chunked";
+
+        pipeline.run(this);
+    }
+
+    /**
+     * Start a step run in phases.
+     */
+    void startPhases()
+    {
+        parity ^= 1;
+        sequential.rand = Randomizer.current();
+        if(born == null) {
+            born = new BitSet(depth * width);
+        }
+    }
+
+    /**
+     * Run one phase of a step over all creatures.
+     * @param phase The phase.
+     */
+    void runPhase(StepPipeline.Phase phase)
+    {
+        switch(phase) {
+            case CULL:
+                sequential.cull();
+                break;
+            case PREDATION:
+                sequential.predation();
+                break;
+            case BIRTHS:
+                born.clear();
+                sequential.born = born;
+                sequential.births();
+                sequential.born = null;
+                break;
+            case MOVEMENT:
+                sequential.movement();
+                break;
+        }
+    }
+
+    /**
+     * Let every creature of a chunked ocean act once, stepping the
+     * chunks that hold creatures as the tiles of a TileGrid, then
+     * release the chunks left empty.
+     * @param pool The pool to run the chunks on, or null to run them on
+     *             the calling thread.
+     * @param key The key of the step's random streams.
+     */
+    public void simulateOneStep(ForkJoinPool pool, long key)
+    {
+        simulateOneStep(pool, key, 0, depth, null);
+    }
+
+    /**
+     * Let the creatures in a band of rows of a chunked ocean act once,
+     * stepping the chunks there as the tiles of a TileGrid, then release
+     * the chunks left empty. Creatures in the band may move into or eat
+     * in the rows next to it. The band holds whole rows of tiles, so
+     * stepping every band of an ocean in turn is the same as stepping
+     * the whole ocean.
+     * @param pool The pool to run the chunks on, or null to run them on
+     *             the calling thread.
+     * @param key The key of the step's random streams.
+     * @param firstRow The first row of the band, the first of a tile.
+     * @param endRow The row after the band, the first of a tile or depth.
+     * @param afterPhase Run after each phase on the calling thread, given
+     *                   the phase; or null.
+     */
+    public void simulateOneStep(ForkJoinPool pool, long key, int firstRow, int endRow,
+                                IntConsumer afterPhase)
+    {
+        assert chunks != null : "The ocean is not chunked";
+        assert firstRow % CHUNK_SIZE == 0 : "The band does not start a row of tiles";
+        assert endRow % CHUNK_SIZE == 0 || endRow == depth : "The band does not end a row of tiles";
+
+        parity ^= 1;
+        // Chunks allocated during the step only hold creatures that
+        // have acted, so only those there are now need stepping.
+        int[] tiles = new int[allocatedCount];
+        int count = 0;
+        for(int i = 0; i < allocatedCount; i++) {
+            int row = chunkGrid.firstRow(allocated[i]);
+            if(firstRow <= row && row < endRow) {
+                tiles[count++] = allocated[i];
+            }
+        }
+        chunkGrid.runPhases(pool, key, tiles, count, tile -> {
+            Worker worker = idleWorkers.poll();
+            if(worker == null) {
+                worker = new Worker(new int[Species.COUNT]);
+                synchronized(chunkWorkers) {
+                    chunkWorkers.add(worker);
+                }
+            }
+            worker.actChunk(tile);
+            idleWorkers.add(worker);
+        }, afterPhase);
+        // Gather the changes to the counts.
+        synchronized(chunkWorkers) {
+            for(Worker worker : chunkWorkers) {
+                for(int s = 0; s < Species.COUNT; s++) {
+                    counts[s] += worker.counts[s];
+                    worker.counts[s] = 0;
+                }
+            }
+        }
+        releaseEmptyChunks();
+    }
+
+    /**
+     * Append the state of the creatures in a row of a chunked ocean:
+     * their number, then the column, species, age, food level, bait and
+     * step parity of each.
+     * @param row The row.
+     * @param out Where to append; with room for ROW_RECORD_SIZE bytes
+     *            per cell, and 4 more.
+     */
+    public void writeRow(int row, ByteBuffer out)
+    {
+        assert chunks != null : "The ocean is not chunked";
+
+        int start = out.position();
+        int count = 0;
+        out.putInt(0);
+        for(int col = 0; col < width; col += CHUNK_SIZE) {
+            int tile = chunkGrid.tileAt(row, col);
+            Chunk chunk = chunks.get(tile);
+            if(chunk == null) {
+                continue;
+            }
+            int first = (row % CHUNK_SIZE) * CHUNK_SIZE;
+            int end = first + chunkGrid.endCol(tile) - col;
+            for(int cell = first; cell < end; cell++) {
+                if(chunk.species[cell] != Species.EMPTY) {
+                    out.putInt(col + cell - first);
+                    out.put(chunk.species[cell]);
+                    out.putShort(chunk.age[cell]);
+                    out.put(chunk.food[cell]);
+                    out.put(chunk.bait[cell]);
+                    out.put(chunk.acted[cell]);
+                    count++;
+                }
+            }
+        }
+        out.putInt(start, count);
+    }
+
+    /**
+     * Replace a row of a chunked ocean with one written by writeRow,
+     * from an ocean of the same width at the same step.
+     * @param row The row.
+     * @param in Where to read the row from.
+     */
+    public void readRow(int row, ByteBuffer in)
+    {
+        assert chunks != null : "The ocean is not chunked";
+
+        for(int col = 0; col < width; col += CHUNK_SIZE) {
+            Chunk chunk = chunks.get(chunkGrid.tileAt(row, col));
+            if(chunk != null) {
+                int first = (row % CHUNK_SIZE) * CHUNK_SIZE;
+                for(int cell = first; cell < first + CHUNK_SIZE; cell++) {
+                    if(chunk.species[cell] != Species.EMPTY) {
+                        counts[chunk.species[cell]]--;
+                        chunk.species[cell] = Species.EMPTY;
+                    }
+                }
+            }
+        }
+        int count = in.getInt();
+        for(int i = 0; i < count; i++) {
+            int col = in.getInt();
+            Chunk chunk = allocate(chunkGrid.tileAt(row, col));
+            int cell = (row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE;
+            chunk.species[cell] = in.get();
+            chunk.age[cell] = in.getShort();
+            chunk.food[cell] = in.get();
+            chunk.bait[cell] = in.get();
+            chunk.acted[cell] = in.get();
+            counts[chunk.species[cell]]++;
+        }
+    }
+
+    /**
+     * Return the chunk of a tile, allocating it if there is none.
+     * Chunks of tiles of the same phase may be allocated at the same time.
+     * @param tile The tile.
+     * @return The chunk.
+     */
+    private Chunk allocate(int tile)
+    {
+        Chunk chunk = chunks.get(tile);
+        if(chunk != null) {
+            return chunk;
+        }
+        synchronized(chunks) {
+            chunk = chunks.get(tile);
+            if(chunk == null) {
+                chunk = new Chunk();
+                chunks.set(tile, chunk);
+                if(allocatedCount == allocated.length) {
+                    allocated = Arrays.copyOf(allocated, 2 * allocatedCount);
+                }
+                allocated[allocatedCount++] = tile;
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Release the chunks that hold no creature.
+     */
+    private void releaseEmptyChunks()
+    {
+        int kept = 0;
+        for(int i = 0; i < allocatedCount; i++) {
+            int tile = allocated[i];
+            if(isEmpty(chunks.get(tile).species, 0, CHUNK_SIZE * CHUNK_SIZE)) {
+                chunks.set(tile, null);
+            }
+            else {
+                allocated[kept++] = tile;
+            }
+        }
+        allocatedCount = kept;
+    }
+
+    /**
+     * @return Whether a range of cells holds no creature.
+     */
+    private static boolean isEmpty(byte[] species, int from, int to)
+    {
+        for(int cell = from; cell < to; cell++) {
+            if(species[cell] != Species.EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the index of a cell of a chunked ocean within its chunk.
+     * @param cell The index of the cell in the ocean.
+     * @return The index of the cell in its chunk.
+     */
+    private int chunkIndex(int cell)
+    {
+        int row = cell / width;
+        int col = cell - row * width;
+        return (row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE;
+    }
+
+    /**
+     * The state of a square of cells of a chunked ocean, row by row.
+     * Cells of a chunk beyond the edge of the ocean stay empty.
+     */
+    private static class Chunk
+    {
+        final byte[] species = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        final short[] age = new short[CHUNK_SIZE * CHUNK_SIZE];
+        final byte[] food = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        final byte[] bait = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        final byte[] acted = new byte[CHUNK_SIZE * CHUNK_SIZE];
+    }
+
+    /**
+     * Let every creature act once, stepping the tiles of the grid in
+     * phases with the tiles of a phase running at the same time.
+     * @param tiles A division of this ocean into tiles.
+     * @param pool The pool to run the tiles on.
+     * @param key The key of the step's random streams.
+     */
+    public void simulateOneStep(TileGrid tiles, ForkJoinPool pool, long key)
+    {
+        if(workers == null || workers.length != tiles.getTileCount()) {
+            workers = new Worker[tiles.getTileCount()];
+            for(int tile = 0; tile < workers.length; tile++) {
+                workers[tile] = new Worker(new int[Species.COUNT]);
+            }
+        }
+        parity ^= 1;
+        tiles.runPhases(pool, key, tile ->
+            workers[tile].act(tiles.firstRow(tile), tiles.endRow(tile),
+                              tiles.firstCol(tile), tiles.endCol(tile)));
+        // Gather the changes to the counts.
+        for(Worker worker : workers) {
+            for(int s = 0; s < Species.COUNT; s++) {
+                counts[s] += worker.counts[s];
+                worker.counts[s] = 0;
+            }
+        }
+    }
+
+    /**
+     * Applies the rules to one part of the ocean at a time. A worker
+     * keeps its own changes to the species counts, so workers on tiles
+     * that do not touch can run at the same time.
+     * A worker works on the cells of a dense ocean, or on a window of
+     * cells of a chunked one; its cell indices count within those cells.
+     */
+    private class Worker
+    {
+        // The changes this worker made to the number of each species.
+        private final int[] counts;
+        // The stream this worker draws from.
+        private SplittableRandom rand;
+        // The state of the cells worked on.
+        private byte[] species;
+        private short[] age;
+        private byte[] food;
+        private byte[] bait;
+        private byte[] acted;
+        // The depth and width of the cells worked on, and where in the
+        // ocean their first cell is.
+        private int windowDepth, windowWidth, originRow, originCol;
+        // The neighbour offsets within the cells worked on.
+        private NeighbourTable offsets;
+        // Where to mark the cells of creatures born, or null.
+        private BitSet born;
+
+        /**
+         * Create a worker, working on the cells of a dense ocean.
+         * @param counts Where to record changes to the species counts.
+         */
+        Worker(int[] counts)
+        {
+            this.counts = counts;
+            species = ArrayOcean.this.species;
+            age = ArrayOcean.this.age;
+            food = ArrayOcean.this.food;
+            bait = ArrayOcean.this.bait;
+            acted = ArrayOcean.this.acted;
+            windowDepth = depth;
+            windowWidth = width;
+            offsets = neighbours;
+        }
+
+        /**
+         * Work on the cells of a chunk, for spawning into it.
+         * @param chunk The chunk.
+         */
+        void useChunk(Chunk chunk)
+        {
+            species = chunk.species;
+            age = chunk.age;
+            food = chunk.food;
+            bait = chunk.bait;
+            acted = chunk.acted;
+        }
+
+        /**
+         * Let the creatures in a chunk act, in a window holding the
+         * chunk and the cells next to it, drawing from the current
+         * stream of the calling thread.
+         * @param tile The tile of the chunk.
+         */
+        void actChunk(int tile)
+        {
+            int firstRow = chunkGrid.firstRow(tile);
+            int endRow = chunkGrid.endRow(tile);
+            int firstCol = chunkGrid.firstCol(tile);
+            int endCol = chunkGrid.endCol(tile);
+            int top = Math.max(firstRow - 1, 0);
+            int left = Math.max(firstCol - 1, 0);
+            int newDepth = Math.min(endRow + 1, depth) - top;
+            int newWidth = Math.min(endCol + 1, width) - left;
+            if(species == null || species.length < newDepth * newWidth) {
+                int size = (CHUNK_SIZE + 2) * (CHUNK_SIZE + 2);
+                species = new byte[size];
+                age = new short[size];
+                food = new byte[size];
+                bait = new byte[size];
+                acted = new byte[size];
+            }
+            if(offsets == null || newDepth != windowDepth || newWidth != windowWidth) {
+                offsets = NeighbourTable.forSize(newDepth, newWidth);
+            }
+            windowDepth = newDepth;
+            windowWidth = newWidth;
+            originRow = top;
+            originCol = left;
+
+            copyWindow(true);
+            act(firstRow - top, endRow - top, firstCol - left, endCol - left);
+            copyWindow(false);
+        }
+
+        /**
+         * Copy the cells of the window from the chunks, or back into
+         * them, allocating the chunks that creatures came into.
+         * @param in Whether to copy from the chunks.
+         */
+        private void copyWindow(boolean in)
+        {
+            for(int row = originRow; row < originRow + windowDepth; row++) {
+                int end = originCol + windowWidth;
+                int col = originCol;
+                while(col < end) {
+                    int tile = chunkGrid.tileAt(row, col);
+                    int length = Math.min(end, chunkGrid.firstCol(tile) + CHUNK_SIZE) - col;
+                    int window = (row - originRow) * windowWidth + col - originCol;
+                    int cell = (row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE;
+                    Chunk chunk = chunks.get(tile);
+                    if(in) {
+                        if(chunk == null) {
+                            Arrays.fill(species, window, window + length, (byte) Species.EMPTY);
+                        }
+                        else {
+                            System.arraycopy(chunk.species, cell, species, window, length);
+                            System.arraycopy(chunk.age, cell, age, window, length);
+                            System.arraycopy(chunk.food, cell, food, window, length);
+                            System.arraycopy(chunk.bait, cell, bait, window, length);
+                            System.arraycopy(chunk.acted, cell, acted, window, length);
+                        }
+                    }
+                    else {
+                        if(chunk == null && !isEmpty(species, window, window + length)) {
+                            chunk = allocate(tile);
+                        }
+                        if(chunk != null) {
+                            System.arraycopy(species, window, chunk.species, cell, length);
+                            System.arraycopy(age, window, chunk.age, cell, length);
+                            System.arraycopy(food, window, chunk.food, cell, length);
+                            System.arraycopy(bait, window, chunk.bait, cell, length);
+                            System.arraycopy(acted, window, chunk.acted, cell, length);
+                        }
+                    }
+                    col += length;
+                }
+            }
+        }
+
+        /**
+         * Let the creatures in a rectangle of cells act, drawing from
+         * the current stream of the calling thread.
+         * Creatures that already acted in this step are skipped.
+         * @param firstRow The first row of the rectangle.
+         * @param endRow The row after the last row.
+         * @param firstCol The first column.
+         * @param endCol The column after the last column.
+         */
+        void act(int firstRow, int endRow, int firstCol, int endCol)
+        {
+            rand = Randomizer.current();
+            boolean timed = timingActs;
+            for(int row = firstRow; row < endRow; row++) {
+                int end = row * windowWidth + endCol;
+                for(int cell = row * windowWidth + firstCol; cell < end; cell++) {
+                    if(species[cell] != Species.EMPTY && acted[cell] != parity) {
+                        acted[cell] = parity;
+                        if(timed) {
+                            int s = species[cell];
+                            long start = System.nanoTime();
+                            act(cell);
+                            metrics.recordAct(s, System.nanoTime() - start);
+                        }
+                        else {
+                            act(cell);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Let the creature in a cell act, according to its species.
+         * @param cell The occupied cell.
+         */
+        private void act(int cell)
+        {
+            if(species[cell] == Species.FISHERMAN) {
+                actFisherman(cell);
+            }
+            else {
+                actAnimal(cell);
+            }
+        }
+
+        /**
+         * Age all creatures and make them hungry, letting those too old
+         * or starved die; fishermen lose interest instead.
+         */
+        void cull()
+        {
+            int[] maxAge = new int[Species.COUNT];
+            int[] foodValue = new int[Species.COUNT];
+            for(int s = 0; s < Species.COUNT; s++) {
+                maxAge[s] = table.getMaxAge(s);
+                foodValue[s] = table.getFoodValue(s);
+            }
+            int size = windowDepth * windowWidth;
+            for(int cell = 0; cell < size; cell++) {
+                int s = species[cell];
+                if(s == Species.EMPTY) {
+                    continue;
+                }
+                if(s == Species.FISHERMAN) {
+                    if(--food[cell] <= 0) {
+                        kill(cell, DeathCause.DEPARTED);
+                    }
+                }
+                else if(++age[cell] > maxAge[s] | (foodValue[s] > 0 && --food[cell] <= 0)) {
+                    kill(cell, age[cell] > maxAge[s] ? DeathCause.AGE : DeathCause.STARVATION);
+                }
+            }
+        }
+
+        /**
+         * Let every predator eat the first prey adjacent, and every
+         * fisherman catch an adjacent fish while bait lasts. Neither
+         * moves into the cell of its prey.
+         */
+        void predation()
+        {
+            int[] prey = new int[Species.COUNT];
+            for(int s = 0; s < Species.COUNT; s++) {
+                prey[s] = s == Species.EMPTY ? 0 : table.getPrey(s);
+            }
+            int size = windowDepth * windowWidth;
+            for(int cell = 0; cell < size; cell++) {
+                int s = species[cell];
+                if(prey[s] == 0) {
+                    continue;
+                }
+                int target = adjacentCellOf(cell, prey[s]);
+                if(target < 0) {
+                    continue;
+                }
+                if(s == Species.FISHERMAN) {
+                    if(bait[cell] < 0) {
+                        // Out of bait: the fisherman goes home.
+                        kill(cell, DeathCause.DEPARTED);
+                        continue;
+                    }
+                    bait[cell]--;
+                }
+                kill(target, s == Species.FISHERMAN ? DeathCause.FISHED : DeathCause.PREDATION);
+                food[cell] = (byte) table.getFoodValue(s);
+            }
+        }
+
+        /**
+         * Let every animal not born in this step breed.
+         */
+        void births()
+        {
+            int size = windowDepth * windowWidth;
+            for(int cell = 0; cell < size; cell++) {
+                int s = species[cell];
+                if(s != Species.EMPTY && s != Species.FISHERMAN && !born.get(cell)) {
+                    giveBirth(cell, s);
+                }
+            }
+        }
+
+        /**
+         * Move every creature that has not yet acted in this step to a
+         * free adjacent cell, or let it die of overcrowding.
+         */
+        void movement()
+        {
+            int size = windowDepth * windowWidth;
+            for(int cell = 0; cell < size; cell++) {
+                if(species[cell] != Species.EMPTY && acted[cell] != parity) {
+                    acted[cell] = parity;
+                    moveOrDie(cell, freeAdjacentCell(cell));
+                }
+            }
+        }
+
+        /**
+         * Create a creature in a free cell, with the same initial state the
+         * constructor of its actor class would give it.
+         * @param s The species of the creature, not EMPTY.
+         * @param cell The index of the cell, which is free.
+         * @param randomAge If true, the creature gets a random age and food level.
+         */
+        void spawn(int s, int cell, boolean randomAge)
+        {
+            species[cell] = (byte) s;
+            age[cell] = 0;
+            food[cell] = 0;
+            acted[cell] = parity;
+            counts[s]++;
+            if(s == Species.FISHERMAN) {
+                food[cell] = Fisherman.INITIAL_CATCH_LEVEL;
+                bait[cell] = Fisherman.INITIAL_BAIT;
+                return;
+            }
+            int foodValue = table.getFoodValue(s);
+            if(randomAge) {
+                age[cell] = (short) rand.nextInt(table.getMaxAge(s));
+                if(foodValue > 0) {
+                    food[cell] = (byte) (rand.nextInt(foodValue - 1) + 1);
+                }
+            }
+            else {
+                food[cell] = (byte) foodValue;
+            }
+        }
+
+        /**
+         * The rules of Animal.act, with the constants of the species
+         * table: age, get hungry unless the species never does, breed,
+         * eat the first prey adjacent and move there, or move to a free
+         * cell, or die of overcrowding.
+         * @param cell The cell of the animal.
+         */
+        private void actAnimal(int cell)
+        {
+            int s = species[cell];
+            int foodValue = table.getFoodValue(s);
+            int maxAge = table.getMaxAge(s);
+            if(++age[cell] > maxAge | (foodValue > 0 && --food[cell] <= 0)) {
+                kill(cell, age[cell] > maxAge ? DeathCause.AGE : DeathCause.STARVATION);
+                return;
+            }
+            giveBirth(cell, s);
+            int prey = table.getPrey(s);
+            int target = prey == 0 ? -1 : adjacentCellOf(cell, prey);
+            if(target >= 0) {
+                kill(target, DeathCause.PREDATION);
+                food[cell] = (byte) foodValue;
+            }
+            else {
+                target = freeAdjacentCell(cell);
+            }
+            moveOrDie(cell, target);
+        }
+
+        /**
+         * The rules of Fisherman.act: lose interest, catch an adjacent fish
+         * while bait lasts, move, or leave the ocean.
+         * @param cell The cell of the fisherman.
+         */
+        private void actFisherman(int cell)
+        {
+            if(--food[cell] <= 0) {
+                kill(cell, DeathCause.DEPARTED);
+                return;
+            }
+            int target = adjacentCellOf(cell, table.getPrey(Species.FISHERMAN));
+            if(target >= 0) {
+                if(bait[cell] < 0) {
+                    // Out of bait: the fisherman goes home.
+                    kill(cell, DeathCause.DEPARTED);
+                    return;
+                }
+                bait[cell]--;
+                kill(target, DeathCause.FISHED);
+                food[cell] = (byte) table.getFoodValue(Species.FISHERMAN);
+            }
+            else {
+                target = freeAdjacentCell(cell);
+            }
+            moveOrDie(cell, target);
+        }
+
+        /**
+         * Breed into free adjacent cells, as Animal.giveBirth does,
+         * with the breeding constants of the parent's species.
+         * @param cell The cell of the parent.
+         * @param s The species of the parent.
+         */
+        private void giveBirth(int cell, int s)
+        {
+            int births = 0;
+            Breeding breeding = table.getBreeding();
+            if(age[cell] >= breeding.getBreedingAge(s)
+               && rand.nextDouble() <= breeding.getBreedingProbability(s)) {
+                births = rand.nextInt(breeding.getMaxLitterSize(s)) + 1;
+            }
+            if(births == 0) {
+                return;
+            }
+            int mask = mask(cell);
+            int order = NeighbourTable.randomOrder(rand);
+            int litter = births;
+            for(int i = 0; i < NeighbourTable.MAX && births > 0; i++) {
+                int next = offsets.neighbour(cell, mask, order, i);
+                if(next >= 0 && species[next] == Species.EMPTY) {
+                    spawn(s, next, false);
+                    if(born != null) {
+                        born.set(next);
+                    }
+                    births--;
+                }
+            }
+            if(metrics != null) {
+                metrics.recordBirths(litter - births);
+            }
+        }
+
+        /**
+         * Move the creature in a cell, or let it die if there is nowhere to go.
+         * @param cell The cell of the creature.
+         * @param target The free cell to move to, or -1.
+         */
+        private void moveOrDie(int cell, int target)
+        {
+            if(target < 0) {
+                // Overcrowding.
+                kill(cell, DeathCause.OVERCROWDING);
+                return;
+            }
+            species[target] = species[cell];
+            age[target] = age[cell];
+            food[target] = food[cell];
+            bait[target] = bait[cell];
+            acted[target] = parity;
+            species[cell] = Species.EMPTY;
+        }
+
+        /**
+         * Remove the creature in a cell.
+         * @param cell The occupied cell.
+         * @param cause Why the creature dies.
+         */
+        private void kill(int cell, DeathCause cause)
+        {
+            counts[species[cell]]--;
+            species[cell] = Species.EMPTY;
+            if(metrics != null) {
+                metrics.recordDeath(cause);
+            }
+        }
+
+        /**
+         * Find a random free cell adjacent to the given one.
+         * @param cell The cell whose neighbours to search.
+         * @return A free adjacent cell, or -1 if there is none.
+         */
+        private int freeAdjacentCell(int cell)
+        {
+            return adjacentCellOf(cell, 1 << Species.EMPTY);
+        }
+
+        /**
+         * Find a random cell adjacent to the given one holding one of the
+         * given species.
+         * @param cell The cell whose neighbours to search.
+         * @param wanted A bit for each species to look for, 1 << species.
+         * @return An adjacent cell holding such a species, or -1 if there is none.
+         */
+        private int adjacentCellOf(int cell, int wanted)
+        {
+            int mask = mask(cell);
+            int order = NeighbourTable.randomOrder(rand);
+            for(int i = 0; i < NeighbourTable.MAX; i++) {
+                int next = offsets.neighbour(cell, mask, order, i);
+                if(next >= 0 && (wanted & 1 << species[next]) != 0) {
+                    return next;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Return the neighbour slots of a cell that lie within the ocean.
+         * @param cell The cell, within the cells worked on.
+         * @return A bit for each slot within the ocean.
+         */
+        private int mask(int cell)
+        {
+            int row = cell / windowWidth;
+            return neighbours.mask(originRow + row, originCol + cell - row * windowWidth);
+        }
+    }
+
+    /**
+     * Return the breeding constants of the creatures.
+     * @return The breeding constants.
+     */
+    public Breeding getBreeding()
+    {
+        return table.getBreeding();
+    }
+
+    /**
+     * Set the breeding constants of the creatures.
+     * @param breeding The breeding constants, not null.
+     */
+    public void setBreeding(Breeding breeding)
+    {
+        assert breeding != null : "The breeding constants are null";
+
+        table = new SpeciesTable(table, breeding);
+    }
+
+    /**
+     * Return the rules of the species.
+     * @return The species table.
+     */
+    public SpeciesTable getSpeciesTable()
+    {
+        return table;
+    }
+
+    /**
+     * Set the rules of the species.
+     * @param table The species table, not null.
+     */
+    public void setSpeciesTable(SpeciesTable table)
+    {
+        assert table != null : "The species table is null";
+
+        this.table = table;
+    }
+
+    /**
+     * Return the number of creatures of a species.
+     * @param s A species id.
+     * @return The number of creatures of that species in the ocean.
+     */
+    public int getCount(int s)
+    {
+        return counts[s];
+    }
+
+    /**
+     * Return the depth of the ocean.
+     * @return The depth of the ocean.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * Return the width of the ocean.
+     * @return The width of the ocean.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Return the species in the given cell.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The species id, Species.EMPTY if there is none.
+     */
+    public int getSpeciesAt(int row, int col)
+    {
+        assert 0 <= row && row < depth && 0 <= col && col < width : "Location not within Ocean";
+
+        return getSpeciesAt(row * width + col);
+    }
+
+    /**
+     * Return the species in the given cell.
+     * @param cell The index of the cell.
+     * @return The species id, Species.EMPTY if there is none.
+     */
+    public int getSpeciesAt(int cell)
+    {
+        if(chunks == null) {
+            return species[cell];
+        }
+        Chunk chunk = chunks.get(chunkGrid.tileOf(cell));
+        return chunk == null ? Species.EMPTY : chunk.species[chunkIndex(cell)];
+    }
+
+    /**
+     * @return The age of the creature in an occupied cell.
+     */
+    public int getAgeAt(int cell)
+    {
+        if(chunks == null) {
+            return age[cell];
+        }
+        return chunks.get(chunkGrid.tileOf(cell)).age[chunkIndex(cell)];
+    }
+
+    /**
+     * @return The food level, or catch level for a fisherman, of the
+     *         creature in an occupied cell.
+     */
+    public int getFoodAt(int cell)
+    {
+        if(chunks == null) {
+            return food[cell];
+        }
+        return chunks.get(chunkGrid.tileOf(cell)).food[chunkIndex(cell)];
+    }
+
+    /**
+     * @return The bait of the fisherman in a cell.
+     */
+    public int getBaitAt(int cell)
+    {
+        if(chunks == null) {
+            return bait[cell];
+        }
+        return chunks.get(chunkGrid.tileOf(cell)).bait[chunkIndex(cell)];
+    }
+
+    /**
+     * Copy the species of every cell, row by row. A chunked ocean
+     * only copies its chunks and fills in the rest as empty.
+     * @param into The array to copy into, one byte per cell.
+     */
+    public void copySpecies(byte[] into)
+    {
+        if(chunks == null) {
+            System.arraycopy(species, 0, into, 0, species.length);
+            return;
+        }
+        Arrays.fill(into, (byte) Species.EMPTY);
+        for(int i = 0; i < allocatedCount; i++) {
+            int tile = allocated[i];
+            Chunk chunk = chunks.get(tile);
+            int firstCol = chunkGrid.firstCol(tile);
+            int length = chunkGrid.endCol(tile) - firstCol;
+            for(int row = chunkGrid.firstRow(tile); row < chunkGrid.endRow(tile); row++) {
+                System.arraycopy(chunk.species, (row % CHUNK_SIZE) * CHUNK_SIZE,
+                                 into, row * width + firstCol, length);
+            }
+        }
+    }
+
+    /**
+     * Visit every occupied cell: in order of the cells for a dense
+     * ocean, chunk by chunk for a chunked one.
+     * @param action The action, given the index of the cell.
+     */
+    public void forEachCreature(IntConsumer action)
+    {
+        if(chunks == null) {
+            for(int cell = 0; cell < species.length; cell++) {
+                if(species[cell] != Species.EMPTY) {
+                    action.accept(cell);
+                }
+            }
+            return;
+        }
+        for(int i = 0; i < allocatedCount; i++) {
+            int tile = allocated[i];
+            byte[] chunkSpecies = chunks.get(tile).species;
+            for(int row = chunkGrid.firstRow(tile); row < chunkGrid.endRow(tile); row++) {
+                for(int col = chunkGrid.firstCol(tile); col < chunkGrid.endCol(tile); col++) {
+                    if(chunkSpecies[(row % CHUNK_SIZE) * CHUNK_SIZE + col % CHUNK_SIZE]
+                       != Species.EMPTY) {
+                        action.accept(row * width + col);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Put a creature with the given state into a free cell, as when
+     * restoring a checkpoint. It counts as having acted this step.
+     * @param s The species of the creature, not EMPTY.
+     * @param cell The index of the cell, which is free.
+     * @param creatureAge The age of the creature.
+     * @param foodLevel The food level, or catch level for a fisherman.
+     * @param baitLeft The bait of a fisherman.
+     */
+    public void restore(int s, int cell, int creatureAge, int foodLevel, int baitLeft)
+    {
+        assert s != Species.EMPTY : "Restoring an empty creature";
+        assert getSpeciesAt(cell) == Species.EMPTY : "Cell is not free";
+
+        if(chunks != null) {
+            sequential.useChunk(allocate(chunkGrid.tileOf(cell)));
+            cell = chunkIndex(cell);
+        }
+        sequential.species[cell] = (byte) s;
+        sequential.age[cell] = (short) creatureAge;
+        sequential.food[cell] = (byte) foodLevel;
+        sequential.bait[cell] = (byte) baitLeft;
+        sequential.acted[cell] = parity;
+        counts[s]++;
+    }
+
+    /**
+     * Get a shuffled list of the free adjacent locations.
+     * @param location Get locations adjacent to this, inside the ocean.
+     * @return A list of free adjacent locations.
+     */
+    public List<Location> getFreeAdjacentLocations(Location location)
+    {
+        int cell = location.getRow() * width + location.getCol();
+        int mask = neighbours.mask(cell);
+        int order = NeighbourTable.randomOrder(Randomizer.current());
+        List<Location> free = new ArrayList<Location>(NeighbourTable.MAX);
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = neighbours.neighbour(cell, mask, order, i);
+            if(next >= 0 && getSpeciesAt(next) == Species.EMPTY) {
+                free.add(new Location(next / width, next % width));
+            }
+        }
+        return free;
+    }
+}
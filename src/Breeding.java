@@ -0,0 +1,119 @@
+/**
+ * The breeding constants of each species: the age at which it can start
+ * to breed, the likelihood of breeding in a step and the maximum number
+ * of births. A new table holds the constants of the species classes;
+ * each ocean has its own table, so simulations can breed differently.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class Breeding
+{
+    // Per species, the age at which it can start to breed.
+    private final int[] breedingAge;
+    // Per species, the likelihood of breeding in a step.
+    private final double[] breedingProbability;
+    // Per species, the maximum number of births.
+    private final int[] maxLitterSize;
+
+    /**
+     * Create a table with the constants of the species classes.
+     */
+    public Breeding()
+    {
+        breedingAge = new int[Species.COUNT];
+        breedingProbability = new double[Species.COUNT];
+        maxLitterSize = new int[Species.COUNT];
+        set(Species.FISH, Fish.BREEDING_AGE, Fish.BREEDING_PROBABILITY,
+            Fish.MAX_LITTER_SIZE);
+        set(Species.SHARK, Shark.BREEDING_AGE, Shark.BREEDING_PROBABILITY,
+            Shark.MAX_LITTER_SIZE);
+        set(Species.WHALE, KillerWhale.BREEDING_AGE, KillerWhale.BREEDING_PROBABILITY,
+            KillerWhale.MAX_LITTER_SIZE);
+    }
+
+    /**
+     * Create a copy of a table.
+     * @param other The table to copy.
+     */
+    public Breeding(Breeding other)
+    {
+        breedingAge = other.breedingAge.clone();
+        breedingProbability = other.breedingProbability.clone();
+        maxLitterSize = other.maxLitterSize.clone();
+    }
+
+    /**
+     * Set all breeding constants of a species.
+     * @param species The species.
+     * @param age The age at which it can start to breed; not negative.
+     * @param probability The likelihood of breeding, 0 <= probability <= 1.
+     * @param litterSize The maximum number of births; positive.
+     */
+    public void set(int species, int age, double probability, int litterSize)
+    {
+        setBreedingAge(species, age);
+        setBreedingProbability(species, probability);
+        setMaxLitterSize(species, litterSize);
+    }
+
+    /**
+     * Set the age at which a species can start to breed.
+     * @param species The species.
+     * @param age The age; not negative.
+     */
+    public void setBreedingAge(int species, int age)
+    {
+        assert age >= 0 : "Negative breeding age";
+
+        breedingAge[species] = age;
+    }
+
+    /**
+     * Set the likelihood of a species breeding in a step.
+     * @param species The species.
+     * @param probability The likelihood, 0 <= probability <= 1.
+     */
+    public void setBreedingProbability(int species, double probability)
+    {
+        assert 0 <= probability && probability <= 1 : "Probability outside [0, 1]";
+
+        breedingProbability[species] = probability;
+    }
+
+    /**
+     * Set the maximum number of births of a species.
+     * @param species The species.
+     * @param litterSize The number of births; positive.
+     */
+    public void setMaxLitterSize(int species, int litterSize)
+    {
+        assert litterSize > 0 : "Litter size not positive";
+
+        maxLitterSize[species] = litterSize;
+    }
+
+    /**
+     * @return The age at which a species can start to breed.
+     */
+    public int getBreedingAge(int species)
+    {
+        return breedingAge[species];
+    }
+
+    /**
+     * @return The likelihood of a species breeding in a step.
+     */
+    public double getBreedingProbability(int species)
+    {
+        return breedingProbability[species];
+    }
+
+    /**
+     * @return The maximum number of births of a species.
+     */
+    public int getMaxLitterSize(int species)
+    {
+        return maxLitterSize[species];
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * How thoroughly a simulation checks its invariants.
+ * The checks of a level run whether or not Java assertions are enabled,
+ * and a broken invariant raises an AssertionError.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public enum CheckLevel
+{
+    /**
+     * No checks.
+     */
+    OFF,
+    /**
+     * After every step, constant-time checks per actor: it is alive,
+     * uses the simulation's ocean and is in its cell of the ocean.
+     */
+    CHEAP,
+    /**
+     * Cheap checks after every step and full checks every so many steps.
+     */
+    SAMPLED,
+    /**
+     * After every step, the cheap checks plus a scan of the whole ocean
+     * that every actor on it is in the list exactly once and the
+     * species counts agree. With assertions enabled, animals also check
+     * themselves on every access.
+     */
+    FULL;
+
+    /**
+     * Check an invariant.
+     * @param holds Whether the invariant holds.
+     * @param message What is wrong if it does not.
+     * @throws AssertionError If the invariant does not hold.
+     */
+    public static void check(boolean holds, String message)
+    {
+        if(!holds) {
+            throw new AssertionError(message);
+        }
+    }
+}
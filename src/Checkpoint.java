@@ -0,0 +1,448 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A snapshot of the full state of a simulation, in a compact binary form
+ * that can be written to and read from a file.
+ * A checkpoint holds the size of the ocean and which engine runs it
+ * (actor objects, compact or chunked compact), the
+ * step, the seed, the species table with its breeding constants and one
+ * record per creature:
+ * its species, cell, age, food level (catch level for a fisherman) and
+ * bait, in the order the creatures act. The random streams of a step
+ * derive from the seed and the step alone, so a restored simulation goes
+ * on exactly as the original would have.
+ * Capturing copies the state, so a checkpoint can be written out on
+ * another thread while the simulation runs on.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class Checkpoint
+{
+    // Marks a checkpoint file, "OCKP".
+    private static final int MAGIC = 0x4F434B50;
+    // The version of the format.
+    private static final int VERSION = 2;
+    // The species with breeding constants.
+    private static final int[] BREEDERS = { Species.FISH, Species.SHARK, Species.WHALE };
+    // Where the breeding constants start, after magic, version, engine,
+    // depth, width, step and seed.
+    private static final int BREEDING_OFFSET = 4 + 4 + 1 + 4 + 4 + 4 + 8;
+    // Where the rest of the species table starts: the maximum age, food
+    // value and prey of each species.
+    private static final int TABLE_OFFSET = BREEDING_OFFSET + BREEDERS.length * (4 + 8 + 4);
+    // The length of the fixed part, up to and including the number of records.
+    private static final int HEADER_SIZE = TABLE_OFFSET + (Species.COUNT - 1) * (4 + 4 + 4) + 4;
+    // The length of a record: species, cell, age, food, bait.
+    private static final int RECORD_SIZE = 1 + 4 + 2 + 2 + 2;
+
+    // The encoded checkpoint, positioned at 0.
+    private final ByteBuffer data;
+
+    /**
+     * Wrap an encoded checkpoint.
+     * @param data The encoded checkpoint.
+     * @throws IllegalArgumentException If it is not a checkpoint.
+     */
+    private Checkpoint(ByteBuffer data)
+    {
+        this.data = data;
+        if(data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a checkpoint");
+        }
+        if(data.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unknown checkpoint version " + data.getInt(4));
+        }
+        if(data.limit() != HEADER_SIZE + getCreatureCount() * RECORD_SIZE) {
+            throw new IllegalArgumentException("Checkpoint has the wrong length");
+        }
+    }
+
+    /**
+     * Capture the state of a simulation.
+     * @param simulator The simulation, between steps.
+     * @return The checkpoint.
+     */
+    public static Checkpoint capture(Simulator simulator)
+    {
+        OceanView view = simulator.getOceanView();
+        int creatures = 0;
+        for(int species = 1; species < Species.COUNT; species++) {
+            creatures += view.getCount(species);
+        }
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + creatures * RECORD_SIZE);
+        ArrayOcean cells = simulator.getCells();
+        data.putInt(MAGIC);
+        data.putInt(VERSION);
+        data.put((byte) (cells == null ? 0 : cells.isChunked() ? 2 : 1));
+        data.putInt(view.getDepth());
+        data.putInt(view.getWidth());
+        data.putInt(simulator.getStep());
+        data.putLong(simulator.getSeed());
+        SpeciesTable table = simulator.getSpeciesTable();
+        Breeding breeding = table.getBreeding();
+        for(int species : BREEDERS) {
+            data.putInt(breeding.getBreedingAge(species));
+            data.putDouble(breeding.getBreedingProbability(species));
+            data.putInt(breeding.getMaxLitterSize(species));
+        }
+        for(int species = 1; species < Species.COUNT; species++) {
+            data.putInt(table.getMaxAge(species));
+            data.putInt(table.getFoodValue(species));
+            data.putInt(table.getPrey(species));
+        }
+        data.putInt(creatures);
+
+        if(cells != null) {
+            cells.forEachCreature(cell ->
+                putRecord(data, cells.getSpeciesAt(cell), cell, cells.getAgeAt(cell),
+                          cells.getFoodAt(cell), cells.getBaitAt(cell)));
+        }
+        else {
+            for(Actor actor : simulator.getActors()) {
+                int species = Species.of(actor);
+                int age = 0, food = 0, bait = 0;
+                if(actor instanceof Animal) {
+                    age = ((Animal) actor).getAge();
+                    food = ((Animal) actor).getFoodLevel();
+                }
+                else if(actor instanceof Fisherman) {
+                    food = ((Fisherman) actor).getCatchLevel();
+                    bait = ((Fisherman) actor).getBait();
+                }
+                putRecord(data, species, actor.getCellIndex(), age, food, bait);
+            }
+        }
+        assert !data.hasRemaining() : "Counts and creatures disagree";
+        data.flip();
+        return new Checkpoint(data);
+    }
+
+    /**
+     * Read a checkpoint from a file, through a memory mapping.
+     * @param file The file.
+     * @return The checkpoint.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a checkpoint.
+     */
+    public static Checkpoint read(Path file) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Checkpoint(mapped);
+        }
+    }
+
+    /**
+     * Write the checkpoint to a file, through a memory mapping. It is
+     * first written next to the file and then moved over it, so the file
+     * always holds a whole checkpoint.
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path file) throws IOException
+    {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        try(FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, data.limit());
+            mapped.put(data.duplicate());
+            mapped.force();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Create a simulation in the state of this checkpoint.
+     * @param factory A factory for creating the actors on a reset.
+     * @param view A view for displaying the simulation.
+     * @return The simulation.
+     */
+    public Simulator createSimulator(Factory factory, View view)
+    {
+        Simulator simulator;
+        if(isCompact()) {
+            simulator = new Simulator(factory, view,
+                                      new ArrayOcean(getDepth(), getWidth(), isChunked()));
+        }
+        else {
+            simulator = new Simulator(factory, view, getDepth(), getWidth(), false);
+        }
+        restore(simulator);
+        return simulator;
+    }
+
+    /**
+     * Put a simulation into the state of this checkpoint.
+     * @param simulator A simulation of the same size and engine.
+     * @throws IllegalArgumentException If the simulation does not match.
+     */
+    public void restore(Simulator simulator)
+    {
+        OceanView view = simulator.getOceanView();
+        ArrayOcean cells = simulator.getCells();
+        if(view.getDepth() != getDepth() || view.getWidth() != getWidth()
+           || (cells != null) != isCompact()
+           || (cells != null && cells.isChunked() != isChunked())) {
+            throw new IllegalArgumentException("The simulation does not match the checkpoint");
+        }
+        simulator.setSpeciesTable(getSpeciesTable());
+        simulator.restore(getStep(), getSeed(), () -> {
+            if(cells != null) {
+                restore(cells);
+                return;
+            }
+            Ocean ocean = simulator.getOcean();
+            List<Actor> actors = simulator.getActors();
+            ByteBuffer in = records();
+            for(int i = 0; i < getCreatureCount(); i++) {
+                int species = in.get();
+                int cell = in.getInt();
+                int age = in.getShort();
+                int food = in.getShort();
+                int bait = in.getShort();
+                actors.add(createActor(ocean, species, cell, age, food, bait));
+            }
+        });
+    }
+
+    /**
+     * Put the creatures of this checkpoint into an empty compact ocean of
+     * the same size, dense or chunked, and set its species table.
+     * The step and seed are left to the caller.
+     * @param cells The ocean.
+     */
+    public void restore(ArrayOcean cells)
+    {
+        assert cells.getDepth() == getDepth() && cells.getWidth() == getWidth() :
+            "The ocean does not match the checkpoint";
+
+        cells.setSpeciesTable(getSpeciesTable());
+        ByteBuffer in = records();
+        for(int i = 0; i < getCreatureCount(); i++) {
+            int species = in.get();
+            int cell = in.getInt();
+            int age = in.getShort();
+            int food = in.getShort();
+            int bait = in.getShort();
+            cells.restore(species, cell, age, food, bait);
+        }
+    }
+
+    /**
+     * Return a checkpoint of the creatures in a band of rows only, as
+     * when handing part of an ocean over to another process.
+     * @param firstRow The first row of the band.
+     * @param endRow The row after the band.
+     * @return The checkpoint, of an ocean of the same size.
+     */
+    public Checkpoint rows(int firstRow, int endRow)
+    {
+        int firstCell = firstRow * getWidth();
+        int endCell = endRow * getWidth();
+        ByteBuffer in = records();
+        ByteBuffer out = ByteBuffer.allocate(data.limit());
+        out.put(data.duplicate().limit(HEADER_SIZE));
+        int creatures = 0;
+        for(int i = 0; i < getCreatureCount(); i++) {
+            int cell = in.getInt(in.position() + 1);
+            if(firstCell <= cell && cell < endCell) {
+                out.put(in.duplicate().limit(in.position() + RECORD_SIZE));
+                creatures++;
+            }
+            in.position(in.position() + RECORD_SIZE);
+        }
+        out.putInt(HEADER_SIZE - 4, creatures);
+        out.flip();
+        return new Checkpoint(out);
+    }
+
+    /**
+     * Return the breeding constants of the simulation.
+     * @return The breeding constants.
+     */
+    public Breeding getBreeding()
+    {
+        Breeding breeding = new Breeding();
+        ByteBuffer in = data.duplicate();
+        in.position(BREEDING_OFFSET);
+        for(int species : BREEDERS) {
+            breeding.set(species, in.getInt(), in.getDouble(), in.getInt());
+        }
+        return breeding;
+    }
+
+    /**
+     * Return the species table of the simulation, breeding constants
+     * included.
+     * @return The species table.
+     */
+    public SpeciesTable getSpeciesTable()
+    {
+        SpeciesTable table = new SpeciesTable(new SpeciesTable(), getBreeding());
+        ByteBuffer in = data.duplicate();
+        in.position(TABLE_OFFSET);
+        for(int species = 1; species < Species.COUNT; species++) {
+            int maxAge = in.getInt();
+            if(maxAge > 0) {
+                table.setMaxAge(species, maxAge);
+            }
+            table.setFoodValue(species, in.getInt());
+            int prey = in.getInt();
+            for(int other = 1; other < Species.COUNT; other++) {
+                table.setEats(species, other, (prey & 1 << other) != 0);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return The records of the creatures, positioned at the first.
+     */
+    private ByteBuffer records()
+    {
+        ByteBuffer in = data.duplicate();
+        in.position(HEADER_SIZE);
+        return in;
+    }
+
+    /**
+     * Return the encoded checkpoint, for sending it elsewhere.
+     * @return The encoded checkpoint, positioned at 0; not to be changed.
+     */
+    ByteBuffer encoded()
+    {
+        return data.duplicate();
+    }
+
+    /**
+     * Wrap a checkpoint encoded elsewhere.
+     * @param data The encoded checkpoint, positioned at 0.
+     * @return The checkpoint.
+     * @throws IllegalArgumentException If it is not a checkpoint.
+     */
+    static Checkpoint decode(ByteBuffer data)
+    {
+        return new Checkpoint(data);
+    }
+
+    /**
+     * @return The depth of the ocean.
+     */
+    public int getDepth()
+    {
+        return data.getInt(9);
+    }
+
+    /**
+     * @return The width of the ocean.
+     */
+    public int getWidth()
+    {
+        return data.getInt(13);
+    }
+
+    /**
+     * @return Whether the simulation ran on the compact engine.
+     */
+    public boolean isCompact()
+    {
+        return data.get(8) != 0;
+    }
+
+    /**
+     * @return Whether the simulation ran on the compact engine in chunks.
+     */
+    public boolean isChunked()
+    {
+        return data.get(8) == 2;
+    }
+
+    /**
+     * @return The step the simulation was at.
+     */
+    public int getStep()
+    {
+        return data.getInt(17);
+    }
+
+    /**
+     * @return The seed of the simulation.
+     */
+    public long getSeed()
+    {
+        return data.getLong(21);
+    }
+
+    /**
+     * @return The number of creatures.
+     */
+    public int getCreatureCount()
+    {
+        return data.getInt(HEADER_SIZE - 4);
+    }
+
+    /**
+     * @return The length of the checkpoint, in bytes.
+     */
+    public int getSize()
+    {
+        return data.limit();
+    }
+
+    /**
+     * Append the record of a creature.
+     */
+    private static void putRecord(ByteBuffer data, int species, int cell,
+                                  int age, int food, int bait)
+    {
+        data.put((byte) species);
+        data.putInt(cell);
+        data.putShort((short) age);
+        data.putShort((short) food);
+        data.putShort((short) bait);
+    }
+
+    /**
+     * Create an actor with the state of a record, placing it in the ocean.
+     * @return The actor.
+     */
+    private static Actor createActor(Ocean ocean, int species, int cell,
+                                     int age, int food, int bait)
+    {
+        Location location = ocean.getLocation(cell);
+        Animal animal;
+        switch(species) {
+            case Species.FISH:
+                animal = new Fish(false, ocean, location);
+                break;
+            case Species.SHARK:
+                animal = new Shark(false, ocean, location);
+                break;
+            case Species.WHALE:
+                animal = new KillerWhale(false, ocean, location);
+                break;
+            case Species.FISHERMAN:
+                Fisherman fisherman = new Fisherman(ocean, location);
+                fisherman.setCatchLevel(food);
+                fisherman.setBait(bait);
+                return fisherman;
+            default:
+                throw new IllegalArgumentException("Unknown species " + species + " in checkpoint");
+        }
+        // Any animal may be hungry, as its species table says.
+        animal.setAge(age);
+        animal.setFoodLevel(food);
+        return animal;
+    }
+}
@@ -0,0 +1,108 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A view that saves the simulation every so many steps, in the background,
+ * and passes every update on to another view.
+ * Capturing a checkpoint is a copy of the state taken during the update;
+ * writing it out happens on a thread of its own while the simulation runs
+ * on. A new checkpoint waits for the previous one to be written, so at
+ * most one is in memory besides the one being written.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class CheckpointView implements View
+{
+    // The view to pass updates on to.
+    private final View view;
+    // The file the checkpoints are written to.
+    private final Path file;
+    // The number of steps between checkpoints.
+    private final int interval;
+    // The thread writing the checkpoints.
+    private final ExecutorService writer;
+    // The checkpoint being written, if any.
+    private Future<?> pending;
+
+    /**
+     * Create a view saving the simulation to a file.
+     * @param view The view to pass updates on to, not null.
+     * @param file The file to write; each checkpoint replaces the last.
+     * @param interval The number of steps between checkpoints; positive.
+     */
+    public CheckpointView(View view, Path file, int interval)
+    {
+        assert view != null : "The view is null";
+        assert interval > 0 : "Interval not positive";
+
+        this.view = view;
+        this.file = file;
+        this.interval = interval;
+        writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "checkpoint writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pass the update on, and save the simulation if a checkpoint is due.
+     * @param simulator The simulation.
+     * @throws UncheckedIOException If writing the previous checkpoint failed.
+     */
+    public void update(Simulator simulator)
+    {
+        view.update(simulator);
+        int step = simulator.getStep();
+        if(step > 0 && step % interval == 0) {
+            awaitPending();
+            Checkpoint checkpoint = Checkpoint.capture(simulator);
+            pending = writer.submit(() -> {
+                checkpoint.write(file);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Wait until the last checkpoint is written, and stop the writer.
+     * @throws UncheckedIOException If writing it failed.
+     */
+    public void close()
+    {
+        awaitPending();
+        writer.shutdown();
+    }
+
+    /**
+     * Wait until the checkpoint being written, if any, is written.
+     * @throws UncheckedIOException If writing it failed.
+     */
+    private void awaitPending()
+    {
+        if(pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException("Writing a checkpoint failed", e.getCause());
+        }
+        finally {
+            pending = null;
+        }
+    }
+}
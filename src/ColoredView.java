@@ -0,0 +1,19 @@
+import java.awt.Color;
+
+/**
+ * A view that shows each class of creature in a color of its own.
+ * Factories set the colors up through this interface, so the same colors
+ * serve a window on the screen and images rendered without one.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public interface ColoredView
+{
+    /**
+     * Define a color to be used for a given class of animal.
+     * @param animalClass The animal's Class object.
+     * @param color The color to be used for the given class.
+     */
+    public void setColor(Class animalClass, Color color);
+}
@@ -52,6 +52,17 @@ public class Counter
         count++;
     }
     
+    /**
+     * Increase the current count.
+     * @param amount How much to add, not negative.
+     */
+    public void add(int amount)
+    {
+        assert amount >= 0 : "Adding a negative amount";
+        
+        count += amount;
+    }
+    
     /**
      * Reset the current count to zero.
      */
@@ -0,0 +1,33 @@
+/**
+ * Why a creature left the ocean, as counted by SimulationMetrics.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public enum DeathCause
+{
+    /**
+     * It grew older than its species lives.
+     */
+    AGE,
+    /**
+     * Its food level ran out.
+     */
+    STARVATION,
+    /**
+     * There was no free cell next to it to move to.
+     */
+    OVERCROWDING,
+    /**
+     * It was eaten by a predator.
+     */
+    PREDATION,
+    /**
+     * It was caught by a fisherman.
+     */
+    FISHED,
+    /**
+     * It was a fisherman who lost interest or ran out of bait.
+     */
+    DEPARTED
+}
@@ -1,7 +1,17 @@
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The interface for creating the initial population in a simulation.
  * 
+ * Besides creating one actor at a time, a factory fills bands of rows,
+ * or a whole ocean, in one call. A whole ocean is filled row by row, each
+ * row drawing from its own stream, so it can be filled on several
+ * threads with the same outcome as on one. A factory with a faster way to
+ * fill a row can override the methods for bands of rows.
+ * 
  * @author Olaf Chitil and Gursimran Khalsa
  * @version 2017/03/08
  */
@@ -17,9 +27,97 @@ public interface Factory
      */
     public Actor optionallyCreateActor(Ocean ocean, Location location);
     
+    /**
+     * Optionally create a creature in a cell of a compact ocean,
+     * with the same probabilities as optionallyCreateActor.
+     * @param ocean The compact ocean.
+     * @param cell The index of the free cell to occupy.
+     */
+    public void optionallyCreateCreature(ArrayOcean ocean, int cell);
+    
+    /**
+     * Optionally create an actor in each cell of a band of rows, in
+     * order, drawing from the current stream.
+     * Pre-condition: the cells of the band are free.
+     * @param ocean The ocean of actors.
+     * @param firstRow The first row of the band.
+     * @param endRow The row after the band.
+     * @param actors The list to add the created actors to, in order.
+     */
+    public default void populate(Ocean ocean, int firstRow, int endRow, List<Actor> actors)
+    {
+        for(int row = firstRow; row < endRow; row++) {
+            for(int col = 0; col < ocean.getWidth(); col++) {
+                Actor actor = optionallyCreateActor(ocean, ocean.getLocation(row, col));
+                if(actor != null) {
+                    actors.add(actor);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Optionally create a creature in each cell of a band of rows of a
+     * compact ocean, in order, drawing from the current stream.
+     * Pre-condition: the cells of the band are free.
+     * @param ocean The compact ocean.
+     * @param firstRow The first row of the band.
+     * @param endRow The row after the band.
+     */
+    public default void populate(ArrayOcean ocean, int firstRow, int endRow)
+    {
+        int width = ocean.getWidth();
+        for(int cell = firstRow * width; cell < endRow * width; cell++) {
+            optionallyCreateCreature(ocean, cell);
+        }
+    }
+    
+    /**
+     * Optionally create an actor in each cell of an ocean, each row
+     * drawing from the stream of a key derived from a key and the row.
+     * Pre-condition: the ocean is empty.
+     * @param ocean The ocean of actors.
+     * @param pool The pool to fill the rows on, or null to fill them in
+     *             order on the calling thread.
+     * @param key The key the streams of the rows derive from.
+     * @param actors The list to add the created actors to, row by row.
+     */
+    public default void populate(Ocean ocean, ForkJoinPool pool, long key, List<Actor> actors)
+    {
+        if(pool == null) {
+            Randomizer.forEach(null, key, ocean.getDepth(),
+                               row -> populate(ocean, row, row + 1, actors));
+            return;
+        }
+        List<List<Actor>> rows = new ArrayList<List<Actor>>();
+        for(int row = 0; row < ocean.getDepth(); row++) {
+            rows.add(new ArrayList<Actor>());
+        }
+        Randomizer.forEach(pool, key, ocean.getDepth(),
+                           row -> populate(ocean, row, row + 1, rows.get(row)));
+        for(List<Actor> row : rows) {
+            actors.addAll(row);
+        }
+    }
+    
+    /**
+     * Optionally create a creature in each cell of a compact ocean, each
+     * row drawing from the stream of a key derived from a key and the row.
+     * Pre-condition: the ocean is empty.
+     * @param ocean The compact ocean.
+     * @param pool The pool to fill the rows on, or null to fill them in
+     *             order on the calling thread.
+     * @param key The key the streams of the rows derive from.
+     */
+    public default void populate(ArrayOcean ocean, ForkJoinPool pool, long key)
+    {
+        ocean.populate(pool, key, row -> populate(ocean, row, row + 1));
+    }
+    
     /**
      * Associate colors with the actor classes.
+     * @param view The view to set the colors of.
      */
-    public void setupColors(SimulatorView view);
+    public void setupColors(ColoredView view);
     
 }
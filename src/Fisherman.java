@@ -1,5 +1,4 @@
 import java.util.List;
-import java.util.Iterator;
 /**
  * Fisherman class which describes the characterstics of fisherman.
  * Fisherman moves, catches fish, dies.
@@ -10,18 +9,21 @@ import java.util.Iterator;
 public class Fisherman implements Actor
 {
     // The number of steps before the fisherman has to catch again.
-    private static final int Fish_CATCH_VALUE = 10;
+    static final int Fish_CATCH_VALUE = 10;
+    // The catch level and bait a fisherman arrives with.
+    static final int INITIAL_CATCH_LEVEL = 50;
+    static final int INITIAL_BAIT = 50;
     
     // The entities ocean
     private final Ocean ocean;
-    // Position of the fisherman.
-    private Location location;
+    // Position of the fisherman, as a cell index.
+    private int cell = -1;
     //If the fisherman is present in the ocean area or not.
     private boolean alive;
     // Fishermans fish catching level. 
-    private int catchLevel = 50;
+    private int catchLevel = INITIAL_CATCH_LEVEL;
     //bait to use to catch fish
-    private int bait = 50;
+    private int bait = INITIAL_BAIT;
     
     //Didn't extend to animal due to not needing the breeding attributes so
     //didn't know how to avoid using the breeding methods.
@@ -49,14 +51,19 @@ public class Fisherman implements Actor
     {
         incrementCatch();
         if(isActive()) {
-            Location newLocation = findFish();
-            if(newLocation == null) {
-                newLocation = getOcean().freeAdjacentLocation(getLocation());
+            int newCell = findFish();
+            if(!isActive()) {
+                // Out of bait, gone home.
+                return;
+            }
+            if(newCell < 0) {
+                newCell = getOcean().freeAdjacentCell(getCellIndex());
             }
             
-            if(newLocation != null) {
-                setLocation(newLocation);
+            if(newCell >= 0) {
+                setLocation(newCell);
             }else {
+                getOcean().recordDeath(DeathCause.OVERCROWDING);
                 setDead();
             }
         }
@@ -78,38 +85,37 @@ public class Fisherman implements Actor
      */
     private void incrementCatch(){
         catchLevel--;
-        if(catchLevel <= 0) {
+        if(catchLevel <= 0 && isActive()) {
+            getOcean().recordDeath(DeathCause.DEPARTED);
             setDead();
         }
     }
     
     /**
      * Allows the fisherman to locate the fish by looking for fishes adjacent to it's location.
-     * @return The location of the fish that was caught.
+     * A fisherman who finds a fish but has run out of bait leaves the ocean.
+     * @return The cell of the fish that was caught, or -1.
      */
-    private Location findFish()
+    private int findFish()
     {
         Ocean ocean = getOcean();
-        List<Location> adjacent = ocean.adjacentLocations(getLocation());
-        Iterator<Location> it = adjacent.iterator();
-        while(it.hasNext()) {
-            Location where = it.next();
-            Actor animal = ocean.getObjectAt(where);
-            if(animal instanceof Fish) {
-                Fish Fish = (Fish) animal;
-                if(bait >= 0) {
-                    if(Fish.isActive()){
-                        bait--;
-                        Fish.setDead();
-                        catchLevel = Fish_CATCH_VALUE;
-                        return where;
-                    }
-                }else{
-                    setDead();
+        int where = ocean.findPrey(getCellIndex(), Species.FISHERMAN);
+        if(where >= 0) {
+            Actor fish = ocean.getObjectAt(where);
+            if(bait >= 0) {
+                if(fish.isActive()){
+                    bait--;
+                    ocean.recordDeath(DeathCause.FISHED);
+                    fish.setDead();
+                    catchLevel = ocean.getSpeciesTable().getFoodValue(Species.FISHERMAN);
+                    return where;
                 }
+            }else{
+                ocean.recordDeath(DeathCause.DEPARTED);
+                setDead();
             }
         }
-        return null;
+        return -1;
     }
     
     /**
@@ -118,7 +124,16 @@ public class Fisherman implements Actor
      */
     public Location getLocation()
     {
-        return location;
+        return ocean.getLocation(cell);
+    }
+    
+    /**
+     * Return the index of the fisherman's cell.
+     * @return The fisherman's cell index.
+     */
+    public int getCellIndex()
+    {
+        return cell;
     }
     
     /**
@@ -127,11 +142,22 @@ public class Fisherman implements Actor
      */
     public void setLocation(Location newLocation)
     {
-        if(location != null) {
-            ocean.clear(location);
+        setLocation(ocean.cellIndex(newLocation));
+    }
+    
+    /**
+     * Place the fisherman in the given cell of the ocean.
+     * @param newCell The index of the fisherman's new cell, within ocean.
+     */
+    public void setLocation(int newCell)
+    {
+        if(cell >= 0) {
+            ocean.move(cell, newCell);
+        }
+        else {
+            ocean.place(this, newCell);
         }
-        location = newLocation;
-        ocean.place(this, newLocation);
+        cell = newCell;
     }
     
     /**
@@ -152,6 +178,33 @@ public class Fisherman implements Actor
         return bait;
     }
     
+    /**
+     * Set the amount of bait the fisherman has.
+     * @param bait The amount of bait; -1 once out of it.
+     */
+    public void setBait(int bait)
+    {
+        this.bait = bait;
+    }
+    
+    /**
+     * Return the catch level of the fisherman.
+     * @return The number of steps before the fisherman has to catch again.
+     */
+    public int getCatchLevel()
+    {
+        return catchLevel;
+    }
+    
+    /**
+     * Set the catch level of the fisherman.
+     * @param level The number of steps before the fisherman has to catch again.
+     */
+    public void setCatchLevel(int level)
+    {
+        catchLevel = level;
+    }
+    
     /**
      * Check whether the fisherman is alive or not.
      * @return The value of the alive field. True if still alive.
@@ -169,7 +222,7 @@ public class Fisherman implements Actor
     {
         if(alive) {
             alive = false;
-            ocean.clear(location);
+            ocean.clear(cell);
         }
     }
     
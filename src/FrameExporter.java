@@ -0,0 +1,311 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * A view that renders the ocean to images every so many steps, without
+ * a window, so runs can be recorded where there is no display.
+ * It writes either a PNG file per frame into a directory, named after the
+ * step, or one animated GIF. Creatures are shown in the colors a factory
+ * sets up, as in SimulatorView, scaled to a square of pixels per cell.
+ *
+ * An update only copies the species of every cell; building the image
+ * and compressing it happen on a pool of threads. PNG frames are encoded
+ * in parallel; the frames of a GIF are encoded one after the other, in
+ * order, on a single thread. Updates wait only when several frames per
+ * thread are already waiting to be encoded.
+ * When the simulation is reset, PNG frames of the new run replace those
+ * of the old and a GIF goes on with the new run.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class FrameExporter implements View, ColoredView, Closeable
+{
+    /**
+     * The kinds of output.
+     */
+    public enum Format
+    {
+        /** One PNG file per frame, in a directory. */
+        PNG,
+        /** One animated GIF file. */
+        GIF
+    }
+
+    // The number of frames per thread that may wait to be encoded.
+    private static final int BACKLOG_PER_THREAD = 4;
+    // The time between frames of a GIF, in hundredths of a second.
+    private static final int GIF_DELAY = 10;
+
+    // The directory of the PNG frames, or the GIF file.
+    private final Path output;
+    // The kind of output.
+    private final Format format;
+    // The number of steps between frames.
+    private final int interval;
+    // The number of pixels per cell, across and down.
+    private final int scale;
+    // The colors of the classes of creatures.
+    private final Map<Class, Color> colors;
+    // The threads encoding the frames.
+    private final ExecutorService encoders;
+    // The frames that may still wait to be encoded.
+    private final Semaphore backlog;
+    // The writer and stream of a GIF, or null.
+    private final ImageWriter gifWriter;
+    private final ImageOutputStream gifStream;
+    // Whether the GIF has a frame yet; only used by the encoder.
+    private boolean gifStarted;
+    // The colors of the species, or null if the colors changed.
+    private IndexColorModel colorModel;
+    // The first failure to encode or write a frame, if any.
+    private volatile IOException failure;
+
+    /**
+     * Create an exporter.
+     * @param output The directory to write PNG frames to, created if
+     *               missing, or the GIF file to write, replaced if present.
+     * @param format The kind of output.
+     * @param interval The number of steps between frames; positive.
+     * @param scale The number of pixels per cell; positive.
+     * @param threads The number of threads encoding PNG frames; positive.
+     *                A GIF is always encoded by one.
+     * @throws IOException If the output cannot be created.
+     */
+    public FrameExporter(Path output, Format format, int interval, int scale, int threads)
+        throws IOException
+    {
+        assert interval > 0 : "Interval not positive";
+        assert scale > 0 : "Scale not positive";
+        assert threads > 0 : "Number of threads not positive";
+
+        this.output = output;
+        this.format = format;
+        this.interval = interval;
+        this.scale = scale;
+        colors = new HashMap<Class, Color>();
+        if(format == Format.GIF) {
+            threads = 1;
+            Files.deleteIfExists(output);
+            gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+            gifStream = ImageIO.createImageOutputStream(output.toFile());
+            gifWriter.setOutput(gifStream);
+            gifWriter.prepareWriteSequence(null);
+        }
+        else {
+            Files.createDirectories(output);
+            gifWriter = null;
+            gifStream = null;
+        }
+        encoders = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "frame encoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        backlog = new Semaphore(BACKLOG_PER_THREAD * threads);
+    }
+
+    /**
+     * Define a color to be used for a given class of animal.
+     * @param animalClass The animal's Class object.
+     * @param color The color to be used for the given class.
+     */
+    public void setColor(Class animalClass, Color color)
+    {
+        colors.put(animalClass, color);
+        colorModel = null;
+    }
+
+    /**
+     * Render a frame if one is due, leaving the encoding to the pool.
+     * @param simulator The simulation.
+     * @throws UncheckedIOException If writing an earlier frame failed.
+     */
+    public void update(Simulator simulator)
+    {
+        if(failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        int step = simulator.getStep();
+        if(step % interval != 0) {
+            return;
+        }
+        OceanView ocean = simulator.getOceanView();
+        int depth = ocean.getDepth();
+        int width = ocean.getWidth();
+        byte[] cells = new byte[depth * width];
+        ocean.copySpecies(cells);
+        if(colorModel == null) {
+            int[] palette = OceanImage.palette(colors);
+            colorModel = new IndexColorModel(8, palette.length, palette, 0, false, -1,
+                                             DataBuffer.TYPE_BYTE);
+        }
+        IndexColorModel model = colorModel;
+
+        try {
+            backlog.acquire();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        encoders.execute(() -> {
+            try {
+                BufferedImage image = render(depth, width, cells, model);
+                if(format == Format.GIF) {
+                    writeGif(image);
+                }
+                else {
+                    writePng(image, step);
+                }
+            }
+            catch(IOException e) {
+                if(failure == null) {
+                    failure = e;
+                }
+            }
+            finally {
+                backlog.release();
+            }
+        });
+    }
+
+    /**
+     * Wait until every frame is written, and finish the output.
+     * @throws IOException If writing a frame or finishing the output failed.
+     */
+    public void close() throws IOException
+    {
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing frames");
+        }
+        if(gifWriter != null) {
+            try {
+                gifWriter.endWriteSequence();
+            }
+            finally {
+                gifStream.close();
+                gifWriter.dispose();
+            }
+        }
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Build the image of a frame, a square of pixels per cell.
+     * @param depth The depth of the ocean.
+     * @param width The width of the ocean.
+     * @param cells The species of every cell.
+     * @param model The colors of the species.
+     * @return The image.
+     */
+    private BufferedImage render(int depth, int width, byte[] cells, IndexColorModel model)
+    {
+        int rowLength = width * scale;
+        BufferedImage image = new BufferedImage(rowLength, depth * scale,
+                                                BufferedImage.TYPE_BYTE_INDEXED, model);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int pixel = 0;
+        for(int row = 0; row < depth; row++) {
+            int rowStart = pixel;
+            for(int col = 0; col < width; col++) {
+                byte species = cells[row * width + col];
+                for(int i = 0; i < scale; i++) {
+                    pixels[pixel++] = species;
+                }
+            }
+            // The other lines of pixels of the row are the same.
+            for(int line = 1; line < scale; line++) {
+                System.arraycopy(pixels, rowStart, pixels, pixel, rowLength);
+                pixel += rowLength;
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Write a frame as a PNG file named after its step.
+     */
+    private void writePng(BufferedImage image, int step) throws IOException
+    {
+        Path file = output.resolve(String.format("frame-%06d.png", step));
+        if(!ImageIO.write(image, "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    /**
+     * Append a frame to the GIF. The first frame makes the GIF loop.
+     */
+    private void writeGif(BufferedImage image) throws IOException
+    {
+        ImageWriteParam param = gifWriter.getDefaultWriteParam();
+        IIOMetadata metadata = gifWriter.getDefaultImageMetadata(
+            ImageTypeSpecifier.createFromRenderedImage(image), param);
+        String name = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(name);
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(GIF_DELAY));
+        control.setAttribute("transparentColorIndex", "0");
+        if(!gifStarted) {
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            // Loop for ever.
+            loop.setUserObject(new byte[] { 1, 0, 0 });
+            child(root, "ApplicationExtensions").appendChild(loop);
+            gifStarted = true;
+        }
+        metadata.setFromTree(name, root);
+        gifWriter.writeToSequence(new IIOImage(image, null, metadata), param);
+    }
+
+    /**
+     * Return the child of a metadata node with the given name, adding it
+     * if missing.
+     */
+    private static IIOMetadataNode child(IIOMetadataNode node, String name)
+    {
+        for(int i = 0; i < node.getLength(); i++) {
+            if(node.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) node.item(i);
+            }
+        }
+        IIOMetadataNode child = new IIOMetadataNode(name);
+        node.appendChild(child);
+        return child;
+    }
+}
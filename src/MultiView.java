@@ -0,0 +1,48 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A view made of several views, so that for example a window and a
+ * recorder can watch the same simulation. Updates go to the views in the
+ * order they were added.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class MultiView implements View
+{
+    // The views to pass updates on to.
+    private final List<View> views;
+
+    /**
+     * Create a view passing updates on to the given views.
+     * @param views The views, not null.
+     */
+    public MultiView(View... views)
+    {
+        this.views = new ArrayList<View>(Arrays.asList(views));
+    }
+
+    /**
+     * Add a view to pass updates on to.
+     * @param view The view, not null.
+     */
+    public void add(View view)
+    {
+        assert view != null : "The view is null";
+
+        views.add(view);
+    }
+
+    /**
+     * Pass the update on to every view.
+     * @param simulator The simulation.
+     */
+    public void update(Simulator simulator)
+    {
+        for(View view : views) {
+            view.update(simulator);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 import java.awt.Color;
-import java.util.Random;
+import java.util.SplittableRandom;
 /**
  * A class responsible for creating the initial population
  * of animals in the simulation.
@@ -11,13 +11,49 @@ public class MyFactory implements Factory
 {     
     // Constants representing configuration information for the simulation.
     // The probability that a Shark will be created in any given grid position.
-    private static final double Shark_CREATION_PROBABILITY = 0.015;
+    static final double Shark_CREATION_PROBABILITY = 0.015;
     // The probability that a Fish will be created in any given grid position.
-    private static final double Fish_CREATION_PROBABILITY = 0.08;    
+    static final double Fish_CREATION_PROBABILITY = 0.08;    
     //The probability that a whale will be created in any given grid position.
-    private static final double Whale_CREATION_PROBABILITY = 0.01;
+    static final double Whale_CREATION_PROBABILITY = 0.01;
     //The probability that a fisherman will arrive in the ocean in any given grid position.
-    private static final double Fisherman_CREATION_PROBABILITY = 0.01;
+    static final double Fisherman_CREATION_PROBABILITY = 0.01;
+    
+    // The probabilities used by this factory.
+    private final double sharkProbability, fishProbability;
+    private final double whaleProbability, fishermanProbability;
+    
+    /**
+     * Create a factory with the usual creation probabilities.
+     */
+    public MyFactory()
+    {
+        this(Shark_CREATION_PROBABILITY, Fish_CREATION_PROBABILITY,
+             Whale_CREATION_PROBABILITY, Fisherman_CREATION_PROBABILITY);
+    }
+    
+    /**
+     * Create a factory with the given creation probabilities.
+     * Each is the probability of creating that creature in a grid
+     * position where none of the ones before it was created.
+     * @param shark The probability of creating a shark.
+     * @param fish The probability of creating a fish.
+     * @param whale The probability of creating a killer whale.
+     * @param fisherman The probability of creating a fisherman.
+     */
+    public MyFactory(double shark, double fish, double whale, double fisherman)
+    {
+        assert 0 <= shark && shark <= 1 : "Shark probability outside [0, 1]";
+        assert 0 <= fish && fish <= 1 : "Fish probability outside [0, 1]";
+        assert 0 <= whale && whale <= 1 : "Whale probability outside [0, 1]";
+        assert 0 <= fisherman && fisherman <= 1 : "Fisherman probability outside [0, 1]";
+        
+        sharkProbability = shark;
+        fishProbability = fish;
+        whaleProbability = whale;
+        fishermanProbability = fisherman;
+    }
+    
     /**
      * Optionally create an actor.
      * Whether an actor is created will depend upon probabilities
@@ -28,28 +64,48 @@ public class MyFactory implements Factory
      */
     public Actor optionallyCreateActor(Ocean ocean, Location location)
     {
-        Random rand = Randomizer.getRandom();
-        if(rand.nextDouble() <= Shark_CREATION_PROBABILITY) {
-            Actor Shark = new Shark(true, ocean, location);
-            return Shark;
+        SplittableRandom rand = Randomizer.current();
+        if(rand.nextDouble() <= sharkProbability) {
+            return Shark.create(true, ocean, location);
         }
-        else if(rand.nextDouble() <= Fish_CREATION_PROBABILITY) {
-            Actor Fish = new Fish(true, ocean, location);
-            return Fish;
-        }else if(rand.nextDouble() <= Whale_CREATION_PROBABILITY){
-            Actor Whale = new KillerWhale(true, ocean, location);
-            return Whale;
-        }else if(rand.nextDouble() <= Fisherman_CREATION_PROBABILITY) {
+        else if(rand.nextDouble() <= fishProbability) {
+            return Fish.create(true, ocean, location);
+        }else if(rand.nextDouble() <= whaleProbability){
+            return KillerWhale.create(true, ocean, location);
+        }else if(rand.nextDouble() <= fishermanProbability) {
             Actor Fisherman = new Fisherman(ocean, location);
             return Fisherman;
         }
         return null;
     }
     
+    /**
+     * Optionally create a creature in a cell of a compact ocean.
+     * Uses the same probabilities as optionallyCreateActor.
+     * @param ocean The compact ocean.
+     * @param cell The index of the free cell to occupy.
+     */
+    public void optionallyCreateCreature(ArrayOcean ocean, int cell)
+    {
+        SplittableRandom rand = Randomizer.current();
+        if(rand.nextDouble() <= sharkProbability) {
+            ocean.spawn(Species.SHARK, cell, true);
+        }
+        else if(rand.nextDouble() <= fishProbability) {
+            ocean.spawn(Species.FISH, cell, true);
+        }
+        else if(rand.nextDouble() <= whaleProbability) {
+            ocean.spawn(Species.WHALE, cell, true);
+        }
+        else if(rand.nextDouble() <= fishermanProbability) {
+            ocean.spawn(Species.FISHERMAN, cell, true);
+        }
+    }
+    
     /**
      * Associate colors with the simulation actors..
      */
-    public void setupColors(SimulatorView view)
+    public void setupColors(ColoredView view)
     {
         assert view != null : "Simulator view is null";
 
@@ -0,0 +1,178 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed neighbourhoods of the cells of a rectangular grid.
+ * Each cell has up to eight neighbour slots. A table holds the cell
+ * index offset of every slot and, per row and per column, which slots
+ * stay within the grid. A random visiting order is one of the 8!
+ * permutations of the slots, so a neighbour search allocates nothing
+ * and still visits the neighbours in random order.
+ * One table is built per grid size and shared by all oceans of that size.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class NeighbourTable
+{
+    // The largest number of neighbours of a cell.
+    public static final int MAX = 8;
+    // The number of orders in which the neighbour slots can be visited.
+    public static final int ORDERS = 40320;
+
+    // Row and column offsets of the neighbour slots.
+    private static final int[] ROW_OFFSETS = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] COL_OFFSETS = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    // Every permutation of the slots, MAX bytes each.
+    private static final byte[] PERMUTATIONS = permutations();
+    // The tables built so far, by grid size.
+    private static final Map<Long, NeighbourTable> tables = new HashMap<Long, NeighbourTable>();
+
+    // The width of the grid.
+    private final int width;
+    // The cell index offset of each slot.
+    private final int[] offsets;
+    // Per row, a bit for each slot that stays within the grid vertically.
+    private final byte[] rowMasks;
+    // Per column, a bit for each slot that stays within the grid horizontally.
+    private final byte[] colMasks;
+
+    /**
+     * Return the neighbour table for a grid size, building it on first use.
+     * @param depth The depth of the grid; positive.
+     * @param width The width of the grid; positive.
+     * @return The table shared by all grids of that size.
+     */
+    public static synchronized NeighbourTable forSize(int depth, int width)
+    {
+        Long key = ((long) depth << 32) | width;
+        NeighbourTable table = tables.get(key);
+        if(table == null) {
+            table = new NeighbourTable(depth, width);
+            tables.put(key, table);
+        }
+        return table;
+    }
+
+    /**
+     * Build the table for a grid size.
+     * @param depth The depth of the grid; positive.
+     * @param width The width of the grid; positive.
+     */
+    private NeighbourTable(int depth, int width)
+    {
+        assert depth > 0 : "Depth not positive";
+        assert width > 0 : "Width not positive";
+
+        this.width = width;
+        offsets = new int[MAX];
+        for(int slot = 0; slot < MAX; slot++) {
+            offsets[slot] = ROW_OFFSETS[slot] * width + COL_OFFSETS[slot];
+        }
+        rowMasks = new byte[depth];
+        for(int row = 0; row < depth; row++) {
+            rowMasks[row] = mask(row, depth, ROW_OFFSETS);
+        }
+        colMasks = new byte[width];
+        for(int col = 0; col < width; col++) {
+            colMasks[col] = mask(col, width, COL_OFFSETS);
+        }
+    }
+
+    /**
+     * Pick a random order in which to visit the neighbour slots.
+     * @param rand The random generator to draw from.
+     * @return An order, for use with neighbour().
+     */
+    public static int randomOrder(SplittableRandom rand)
+    {
+        return rand.nextInt(ORDERS);
+    }
+
+    /**
+     * Return the slots of a cell that lie within the grid.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return A bit for each slot within the grid.
+     */
+    public int mask(int row, int col)
+    {
+        return rowMasks[row] & colMasks[col];
+    }
+
+    /**
+     * Return the slots of a cell that lie within the grid.
+     * @param cell The index of the cell.
+     * @return A bit for each slot within the grid.
+     */
+    public int mask(int cell)
+    {
+        int row = cell / width;
+        return mask(row, cell - row * width);
+    }
+
+    /**
+     * Return the i-th neighbour of a cell in the given visiting order.
+     * Visiting i = 0 .. MAX-1 yields every neighbour exactly once.
+     * @param cell The index of the cell.
+     * @param mask The mask of the cell.
+     * @param order A visiting order from randomOrder().
+     * @param i The position in the order, 0 <= i < MAX.
+     * @return The index of the neighbour, or -1 if that slot is outside the grid.
+     */
+    public int neighbour(int cell, int mask, int order, int i)
+    {
+        int slot = PERMUTATIONS[order * MAX + i];
+        if((mask & (1 << slot)) == 0) {
+            return -1;
+        }
+        return cell + offsets[slot];
+    }
+
+    /**
+     * Compute which slots stay within [0, size) along one axis.
+     * @param pos The position along the axis.
+     * @param size The size of the axis.
+     * @param axisOffsets The offsets of the slots along the axis.
+     * @return A bit for each slot within range.
+     */
+    private static byte mask(int pos, int size, int[] axisOffsets)
+    {
+        int mask = 0;
+        for(int slot = 0; slot < MAX; slot++) {
+            int next = pos + axisOffsets[slot];
+            if(next >= 0 && next < size) {
+                mask |= 1 << slot;
+            }
+        }
+        return (byte) mask;
+    }
+
+    /**
+     * List every permutation of the slots.
+     * @return ORDERS permutations of MAX slots, one after the other.
+     */
+    private static byte[] permutations()
+    {
+        byte[] all = new byte[ORDERS * MAX];
+        byte[] slots = new byte[MAX];
+        for(int order = 0; order < ORDERS; order++) {
+            // Decode the order as a number in the factorial base.
+            for(int slot = 0; slot < MAX; slot++) {
+                slots[slot] = (byte) slot;
+            }
+            int rest = order;
+            for(int i = 0; i < MAX; i++) {
+                int remaining = MAX - i;
+                int pick = i + rest % remaining;
+                rest /= remaining;
+                byte swap = slots[i];
+                slots[i] = slots[pick];
+                slots[pick] = swap;
+            }
+            System.arraycopy(slots, 0, all, order * MAX, MAX);
+        }
+        return all;
+    }
+}
@@ -1,26 +1,45 @@
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Represent a rectangular grid of Ocean positions.
  * Each position is able to store a single animal.
- * 
+ * Positions can be named by a Location or by a cell index,
+ * row * width + col. The ocean owns one Location per cell, which
+ * getLocation returns, so locations never need to be allocated.
+ * The number of animals of each species is kept up to date as animals
+ * are placed and cleared, so population queries do not scan the grid.
+ * An ocean can keep dead animals in a pool per species, to be brought
+ * back as new ones instead of allocating them.
+ *
  * @author David J. Barnes, Michael Kolling, Olaf Chitil and Gursimran Khalsa
  * @version 07/03/2017
  */
 public class Ocean implements OceanView
 {
-    // A random number generator for providing random locations.
-    private static final Random rand = Randomizer.getRandom();
-    
     // The depth and width of the Ocean.
     private int depth, width;
-    // Storage for the animals.
-    private final Actor[][] Ocean;
-
+    // Storage for the animals, indexed by cell.
+    private final Actor[] Ocean;
+    // The neighbourhoods of the cells.
+    private final NeighbourTable neighbours;
+    // One location per cell, indexed by cell.
+    private final Location[] locations;
+    // The number of animals of each species. Striped, as the animals
+    // of a parallel step are placed and cleared from several threads.
+    private final LongAdder[] counts;
+    // The rules of the species in this ocean.
+    private SpeciesTable table;
+    // Per species, the dead animals kept for reuse; null when not pooling.
+    private List<ArrayDeque<Animal>> pools;
+    // Where births and deaths are recorded, or null.
+    private SimulationMetrics metrics;
+    // Whether the animals check their invariants on every access.
+    private boolean selfChecking;
+    
     /**
      * Represent a ocean of the given dimensions.
      * @param depth The depth of the ocean; positive.
@@ -33,7 +52,20 @@ public class Ocean implements OceanView
         
         this.depth = depth;
         this.width = width;
-        Ocean = new Actor[depth][width];
+        Ocean = new Actor[depth * width];
+        neighbours = NeighbourTable.forSize(depth, width);
+        counts = new LongAdder[Species.COUNT];
+        for(int species = 0; species < Species.COUNT; species++) {
+            counts[species] = new LongAdder();
+        }
+        table = new SpeciesTable();
+        selfChecking = true;
+        locations = new Location[depth * width];
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                locations[row * width + col] = new Location(row, col);
+            }
+        }
         clear();
     }
     
@@ -42,10 +74,9 @@ public class Ocean implements OceanView
      */
     public void clear()
     {
-        for(int row = 0; row < depth; row++) {
-            for(int col = 0; col < width; col++) {
-                Ocean[row][col] = null;
-            }
+        Arrays.fill(Ocean, null);
+        for(LongAdder count : counts) {
+            count.reset();
         }
     }
     
@@ -57,7 +88,22 @@ public class Ocean implements OceanView
     {
         assert inside(location) : "Location not within the Ocean";
         
-        Ocean[location.getRow()][location.getCol()] = null;
+        clear(cellIndex(location));
+    }
+    
+    /**
+     * Clear the given cell.
+     * @param cell The index of the cell to clear, inside the ocean.
+     */
+    public void clear(int cell)
+    {
+        assert inside(cell) : "Cell not within the Ocean";
+        
+        Actor animal = Ocean[cell];
+        if(animal != null) {
+            counts[Species.of(animal)].decrement();
+            Ocean[cell] = null;
+        }
     }
     
     /**
@@ -69,11 +115,9 @@ public class Ocean implements OceanView
      */
     public void place(Actor animal, int row, int col)
     {
-        assert animal != null : "Animal is null";
-        assert inside(new Location(row,col)) : "Location not within Ocean";
-        assert getObjectAt(row,col) == null : "Ocean location is free";
+        assert inside(row, col) : "Location not within Ocean";
         
-        place(animal, new Location(row, col));
+        place(animal, cellIndex(row, col));
     }
     
     /**
@@ -83,11 +127,217 @@ public class Ocean implements OceanView
      */
     public void place(Actor animal, Location location)
     {
-        assert animal != null : "Animal is null";
         assert inside(location) : "Location not within Ocean";
-        assert getObjectAt(location) == null : "Ocean location is free";
         
-        Ocean[location.getRow()][location.getCol()] = animal;
+        place(animal, cellIndex(location));
+    }
+    
+    /**
+     * Place an animal in the given cell.
+     * At the given cell the ocean is free.
+     * @param animal The animal to be placed, not null.
+     * @param cell The index of the cell, inside the Ocean.
+     */
+    public void place(Actor animal, int cell)
+    {
+        assert animal != null : "Animal is null";
+        assert inside(cell) : "Cell not within Ocean";
+        assert Ocean[cell] == null : "Ocean location is free";
+        
+        Ocean[cell] = animal;
+        counts[Species.of(animal)].increment();
+    }
+    
+    /**
+     * Move the animal in one cell to another, free cell.
+     * @param from The index of the animal's cell, inside the Ocean.
+     * @param to The index of the free cell, inside the Ocean.
+     */
+    public void move(int from, int to)
+    {
+        assert inside(from) && inside(to) : "Cell not within Ocean";
+        assert Ocean[from] != null : "No animal to move";
+        assert Ocean[to] == null : "Ocean location is free";
+        
+        Ocean[to] = Ocean[from];
+        Ocean[from] = null;
+    }
+    
+    /**
+     * Return the number of animals of a species in the ocean.
+     * @param species A species id.
+     * @return The number of animals of that species.
+     */
+    public int getCount(int species)
+    {
+        return counts[species].intValue();
+    }
+    
+    /**
+     * Return the breeding constants of the animals in this ocean.
+     * @return The breeding constants.
+     */
+    public Breeding getBreeding()
+    {
+        return table.getBreeding();
+    }
+    
+    /**
+     * Set the breeding constants of the animals in this ocean.
+     * @param breeding The breeding constants, not null.
+     */
+    public void setBreeding(Breeding breeding)
+    {
+        assert breeding != null : "The breeding constants are null";
+        
+        table = new SpeciesTable(table, breeding);
+    }
+    
+    /**
+     * Choose whether the animals in this ocean check their invariants
+     * on every access. They do unless told otherwise.
+     * @param on Whether the checks are done.
+     */
+    public void setSelfChecking(boolean on)
+    {
+        selfChecking = on;
+    }
+    
+    /**
+     * Return whether the animals in this ocean check their invariants
+     * on every access.
+     * @return Whether the checks are done.
+     */
+    public boolean isSelfChecking()
+    {
+        return selfChecking;
+    }
+    
+    /**
+     * Set where the births and deaths of the actors are recorded.
+     * @param metrics The metrics, or null to record nothing.
+     */
+    public void setMetrics(SimulationMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Record births, if metrics are kept.
+     * @param count The number of actors born.
+     */
+    public void recordBirths(int count)
+    {
+        if(metrics != null) {
+            metrics.recordBirths(count);
+        }
+    }
+    
+    /**
+     * Record the death of an actor, if metrics are kept.
+     * @param cause Why the actor died.
+     */
+    public void recordDeath(DeathCause cause)
+    {
+        if(metrics != null) {
+            metrics.recordDeath(cause);
+        }
+    }
+    
+    /**
+     * Choose whether dead animals are kept to be reused by births.
+     * Turning pooling off drops the animals kept.
+     * @param on Whether to pool dead animals.
+     */
+    public void setPooling(boolean on)
+    {
+        if(!on) {
+            pools = null;
+        }
+        else if(pools == null) {
+            pools = new ArrayList<ArrayDeque<Animal>>();
+            for(int species = 0; species < Species.COUNT; species++) {
+                pools.add(new ArrayDeque<Animal>());
+            }
+        }
+    }
+    
+    /**
+     * Return whether dead animals are kept to be reused.
+     * @return Whether the ocean pools dead animals.
+     */
+    public boolean isPooling()
+    {
+        return pools != null;
+    }
+    
+    /**
+     * Keep a dead actor for reuse, if the ocean pools animals and it is one.
+     * It must no longer be in the ocean nor in any list of actors; it is
+     * detached from its cell, so using it before it is reused fails its
+     * checks.
+     * @param actor The dead actor of this ocean.
+     */
+    public void recycle(Actor actor)
+    {
+        assert !actor.isActive() : "Recycling a live actor";
+        
+        if(pools == null || !(actor instanceof Animal)) {
+            return;
+        }
+        Animal animal = (Animal) actor;
+        assert Ocean[animal.getCellIndex()] != animal : "Recycling an animal still in the ocean";
+        
+        animal.detach();
+        ArrayDeque<Animal> pool = pools.get(Species.of(animal));
+        synchronized(pool) {
+            pool.push(animal);
+        }
+    }
+    
+    /**
+     * Bring a dead animal of a species back as a new one, if one is kept.
+     * Births of a parallel step may call this from several threads.
+     * @param species The species of the animal.
+     * @param randomAge Whether the animal gets a random age, as from its
+     *                  constructor.
+     * @param location The free location of the animal, inside the ocean.
+     * @return The animal, alive at the location, or null if none is kept.
+     */
+    public Animal reuse(int species, boolean randomAge, Location location)
+    {
+        if(pools == null) {
+            return null;
+        }
+        ArrayDeque<Animal> pool = pools.get(species);
+        Animal animal;
+        synchronized(pool) {
+            animal = pool.poll();
+        }
+        if(animal != null) {
+            animal.revive(randomAge, location);
+        }
+        return animal;
+    }
+    
+    /**
+     * Return the rules of the species in this ocean.
+     * @return The species table.
+     */
+    public SpeciesTable getSpeciesTable()
+    {
+        return table;
+    }
+    
+    /**
+     * Set the rules of the species in this ocean.
+     * @param table The species table, not null.
+     */
+    public void setSpeciesTable(SpeciesTable table)
+    {
+        assert table != null : "The species table is null";
+        
+        this.table = table;
     }
     
     /**
@@ -99,7 +349,7 @@ public class Ocean implements OceanView
     {
         assert inside(location) : "Location not within Ocean";
         
-        return getObjectAt(location.getRow(), location.getCol());
+        return Ocean[cellIndex(location)];
     }
     
     /**
@@ -110,9 +360,200 @@ public class Ocean implements OceanView
      */
     public Actor getObjectAt(int row, int col)
     {
-        assert inside(new Location(row,col)) : "Location not within Ocean";
-
-        return Ocean[row][col];
+        assert inside(row, col) : "Location not within Ocean";
+        
+        return Ocean[cellIndex(row, col)];
+    }
+    
+    /**
+     * Return the animal in the given cell, if any.
+     * @param cell The index of the cell, inside the Ocean.
+     * @return The animal in the cell, or null if there is none.
+     */
+    public Actor getObjectAt(int cell)
+    {
+        assert inside(cell) : "Cell not within Ocean";
+        
+        return Ocean[cell];
+    }
+    
+    /**
+     * Return the species of the animal at the given location.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The species id, Species.EMPTY if there is no animal.
+     */
+    public int getSpeciesAt(int row, int col)
+    {
+        return Species.of(getObjectAt(row, col));
+    }
+    
+    /**
+     * Return the species of the animal in the given cell.
+     * @param cell The index of the cell, inside the Ocean.
+     * @return The species id, Species.EMPTY if there is no animal.
+     */
+    public int getSpeciesAt(int cell)
+    {
+        return Species.of(getObjectAt(cell));
+    }
+    
+    /**
+     * Return the ocean's location for a row and column.
+     * @param row The row, inside the Ocean.
+     * @param col The column, inside the Ocean.
+     * @return The shared location object of that cell.
+     */
+    public Location getLocation(int row, int col)
+    {
+        assert inside(row, col) : "Location not within Ocean";
+        
+        return locations[cellIndex(row, col)];
+    }
+    
+    /**
+     * Return the ocean's location for a cell.
+     * @param cell The index of the cell, inside the Ocean.
+     * @return The shared location object of that cell.
+     */
+    public Location getLocation(int cell)
+    {
+        assert inside(cell) : "Cell not within Ocean";
+        
+        return locations[cell];
+    }
+    
+    /**
+     * Return the index of the cell at a location.
+     * @param location A location inside the Ocean.
+     * @return The index of its cell.
+     */
+    public int cellIndex(Location location)
+    {
+        return cellIndex(location.getRow(), location.getCol());
+    }
+    
+    /**
+     * Return the index of the cell at a row and column.
+     * @param row The row.
+     * @param col The column.
+     * @return The index of the cell, row * width + col.
+     */
+    public int cellIndex(int row, int col)
+    {
+        return row * width + col;
+    }
+    
+    /**
+     * Pick a random order in which to visit adjacent cells,
+     * for use with adjacentCell and adjacentLocation.
+     * @return A visiting order.
+     */
+    public int randomOrder()
+    {
+        return NeighbourTable.randomOrder(Randomizer.current());
+    }
+    
+    /**
+     * Return the i-th cell adjacent to the given one in a visiting order.
+     * Visiting i = 0 .. NeighbourTable.MAX-1 yields every adjacent cell
+     * exactly once, without allocating anything.
+     * @param cell The index of the cell whose neighbours to visit, inside the Ocean.
+     * @param order A visiting order from randomOrder().
+     * @param i The position in the order.
+     * @return The index of the adjacent cell, or -1 if that one lies outside the Ocean.
+     */
+    public int adjacentCell(int cell, int order, int i)
+    {
+        return neighbours.neighbour(cell, neighbours.mask(cell), order, i);
+    }
+    
+    /**
+     * Return the i-th location adjacent to the given one in a visiting order.
+     * Visiting i = 0 .. NeighbourTable.MAX-1 yields every adjacent location
+     * exactly once, without allocating anything.
+     * @param location The location whose neighbours to visit, inside the Ocean.
+     * @param order A visiting order from randomOrder().
+     * @param i The position in the order.
+     * @return The adjacent location, or null if that one lies outside the Ocean.
+     */
+    public Location adjacentLocation(Location location, int order, int i)
+    {
+        int row = location.getRow();
+        int col = location.getCol();
+        int next = neighbours.neighbour(cellIndex(row, col), neighbours.mask(row, col), order, i);
+        if(next < 0) {
+            return null;
+        }
+        return locations[next];
+    }
+    
+    /**
+     * Find a random cell adjacent to the given one holding an animal of the given class.
+     * @param cell The index of the cell whose neighbours to search, inside the Ocean.
+     * @param animalClass The class of animal to look for.
+     * @return The index of an adjacent cell holding such an animal, or -1 if there is none.
+     */
+    public int findAdjacent(int cell, Class animalClass)
+    {
+        assert inside(cell) : "Cell not within Ocean";
+        
+        int mask = neighbours.mask(cell);
+        int order = randomOrder();
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = neighbours.neighbour(cell, mask, order, i);
+            if(next >= 0) {
+                Actor animal = Ocean[next];
+                if(animal != null && animal.getClass() == animalClass) {
+                    return next;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Find a random cell adjacent to the given one holding prey of a species,
+     * as the species table of this ocean says.
+     * @param cell The index of the cell whose neighbours to search, inside the Ocean.
+     * @param predator The species looking for prey.
+     * @return The index of an adjacent cell holding prey, or -1 if there is none.
+     */
+    public int findPrey(int cell, int predator)
+    {
+        assert inside(cell) : "Cell not within Ocean";
+        
+        int prey = table.getPrey(predator);
+        if(prey == 0) {
+            // Nothing to eat: no cell is drawn, as on the compact engine.
+            return -1;
+        }
+        int mask = neighbours.mask(cell);
+        int order = randomOrder();
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = neighbours.neighbour(cell, mask, order, i);
+            if(next >= 0 && (prey & 1 << Species.of(Ocean[next])) != 0) {
+                return next;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Find a random adjacent location holding an animal of the given class.
+     * @param location The location whose neighbours to search, inside the Ocean.
+     * @param animalClass The class of animal to look for.
+     * @return An adjacent location holding such an animal, or null if there is none.
+     */
+    public Location findAdjacent(Location location, Class animalClass)
+    {
+        assert inside(location) : "Location not within Ocean";
+        
+        int next = findAdjacent(cellIndex(location), animalClass);
+        if(next < 0) {
+            return null;
+        }
+        return locations[next];
     }
     
     /**
@@ -126,12 +567,16 @@ public class Ocean implements OceanView
     public Location randomAdjacentLocation(Location location)
     {
         assert inside(location) : "Location not within Ocean";
-
-        List<Location> adjacent = adjacentLocations(location);
-        Location newLocation = adjacent.get(0);
         
-        assert inside(newLocation) : "New location not within Ocean";
-        return newLocation;
+        int cell = cellIndex(location);
+        int order = randomOrder();
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = adjacentCell(cell, order, i);
+            if(next >= 0) {
+                return locations[next];
+            }
+        }
+        return location;
     }
     
     /**
@@ -142,17 +587,39 @@ public class Ocean implements OceanView
     public List<Location> getFreeAdjacentLocations(Location location)
     {
         assert inside(location) : "Location not within Ocean";
-
-        List<Location> free = new LinkedList<Location>();
-        List<Location> adjacent = adjacentLocations(location);
-        for(Location next : adjacent) {
-            if(getObjectAt(next) == null) {
-                free.add(next);
+        
+        List<Location> free = new ArrayList<Location>(NeighbourTable.MAX);
+        int cell = cellIndex(location);
+        int order = randomOrder();
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = adjacentCell(cell, order, i);
+            if(next >= 0 && Ocean[next] == null) {
+                free.add(locations[next]);
             }
         }
         return free;
     }
     
+    /**
+     * Try to find a free cell that is adjacent to the given cell.
+     * @param cell The index of the cell whose neighbours to search, inside the Ocean.
+     * @return The index of a free adjacent cell, or -1 if there is none.
+     */
+    public int freeAdjacentCell(int cell)
+    {
+        assert inside(cell) : "Cell not within Ocean";
+        
+        int mask = neighbours.mask(cell);
+        int order = randomOrder();
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = neighbours.neighbour(cell, mask, order, i);
+            if(next >= 0 && Ocean[next] == null) {
+                return next;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * Try to find a free location that is adjacent to the
      * given location. If there is none, return null.
@@ -164,17 +631,14 @@ public class Ocean implements OceanView
     public Location freeAdjacentLocation(Location location)
     {
         assert inside(location) : "Location not within Ocean";
-
-        // The available free ones.
-        List<Location> free = getFreeAdjacentLocations(location);
-        if(free.size() > 0) {
-            return free.get(0);
-        }
-        else {
+        
+        int next = freeAdjacentCell(cellIndex(location));
+        if(next < 0) {
             return null;
         }
+        return locations[next];
     }
-
+    
     /**
      * Return a shuffled list of locations adjacent to the given one.
      * The list will not include the location itself.
@@ -185,32 +649,22 @@ public class Ocean implements OceanView
     public List<Location> adjacentLocations(Location location)
     {
         assert inside(location) : "Location not within Ocean";
-    
+        
         // The list of locations to be returned.
-        List<Location> locations = new LinkedList<Location>();
+        List<Location> locations = new ArrayList<Location>(NeighbourTable.MAX);
         if(location != null) {
-            int row = location.getRow();
-            int col = location.getCol();
-            for(int roffset = -1; roffset <= 1; roffset++) {
-                int nextRow = row + roffset;
-                if(nextRow >= 0 && nextRow < depth) {
-                    for(int coffset = -1; coffset <= 1; coffset++) {
-                        int nextCol = col + coffset;
-                        // Exclude invalid locations and the original location.
-                        if(nextCol >= 0 && nextCol < width && (roffset != 0 || coffset != 0)) {
-                            locations.add(new Location(nextRow, nextCol));
-                        }
-                    }
+            int cell = cellIndex(location);
+            int order = randomOrder();
+            for(int i = 0; i < NeighbourTable.MAX; i++) {
+                int next = adjacentCell(cell, order, i);
+                if(next >= 0) {
+                    locations.add(this.locations[next]);
                 }
             }
-            
-            // Shuffle the list. Several other methods rely on the list
-            // being in a random order.
-            Collections.shuffle(locations, rand);
         }
         return locations;
     }
-
+    
     /**
      * Return the depth of the Ocean.
      * @return The depth of the Ocean.
@@ -237,4 +691,22 @@ public class Ocean implements OceanView
     {
         return location != null && location.getRow() < depth && location.getCol() < width;
     }
+    
+    /**
+     * Check whether a row and column lie within the Ocean.
+     * @return The decision.
+     */
+    public boolean inside(int row, int col)
+    {
+        return 0 <= row && row < depth && 0 <= col && col < width;
+    }
+    
+    /**
+     * Check whether a cell index lies within the Ocean.
+     * @return The decision.
+     */
+    public boolean inside(int cell)
+    {
+        return 0 <= cell && cell < Ocean.length;
+    }
 }
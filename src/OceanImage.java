@@ -0,0 +1,181 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An image of an ocean with one pixel per cell. Rendering writes the
+ * color of each cell's species straight into the image's pixel array,
+ * from a palette resolved once per species, so a frame costs one tight
+ * loop over the cells; drawing scales the image in one call.
+ * The image remembers the species it shows in each cell, so rendering
+ * only writes the cells that changed and tells which rectangle of cells
+ * needs repainting, and drawing only scales the part that is needed.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class OceanImage
+{
+    // Colors used for empty locations.
+    private static final Color EMPTY_COLOR = Color.white;
+    // Color used for objects that have no defined color.
+    private static final Color UNKNOWN_COLOR = Color.gray;
+
+    // The depth and width of the ocean.
+    private final int depth, width;
+    // The image, one pixel per cell.
+    private final BufferedImage image;
+    // The pixels of the image, row by row.
+    private final int[] pixels;
+    // The species shown in each cell, -1 where nothing is shown yet.
+    private final byte[] shown;
+    // The palette of the pixels shown, or null.
+    private int[] shownPalette;
+
+    /**
+     * Create an image for an ocean of the given size.
+     * @param depth The depth of the ocean; positive.
+     * @param width The width of the ocean; positive.
+     */
+    public OceanImage(int depth, int width)
+    {
+        assert depth > 0 && width > 0 : "The dimensions are not positive";
+
+        this.depth = depth;
+        this.width = width;
+        image = new BufferedImage(width, depth, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        shown = new byte[depth * width];
+        Arrays.fill(shown, (byte) -1);
+    }
+
+    /**
+     * Render an ocean into the image, writing only the cells whose
+     * species changed since the last rendering.
+     * @param ocean The ocean, of the size of the image.
+     * @param palette The RGB color of each species id.
+     * @return The rectangle of cells that changed, columns as x and
+     *         rows as y, or null if none did.
+     */
+    public Rectangle render(OceanView ocean, int[] palette)
+    {
+        assert ocean.getDepth() == depth && ocean.getWidth() == width :
+            "The ocean has another size";
+
+        if(!Arrays.equals(palette, shownPalette)) {
+            // Other colors: everything is to be rendered again.
+            Arrays.fill(shown, (byte) -1);
+            shownPalette = palette.clone();
+        }
+        int firstRow = depth, endRow = 0, firstCol = width, endCol = 0;
+        int cell = 0;
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++, cell++) {
+                byte species = (byte) ocean.getSpeciesAt(cell);
+                if(species != shown[cell]) {
+                    shown[cell] = species;
+                    pixels[cell] = palette[species];
+                    firstRow = Math.min(firstRow, row);
+                    endRow = row + 1;
+                    firstCol = Math.min(firstCol, col);
+                    endCol = Math.max(endCol, col + 1);
+                }
+            }
+        }
+        if(endRow == 0) {
+            return null;
+        }
+        return new Rectangle(firstCol, firstRow, endCol - firstCol, endRow - firstRow);
+    }
+
+    /**
+     * Draw the image scaled to the given size. Only the cells within the
+     * clip of the graphics are drawn.
+     * @param g The graphics to draw on.
+     * @param drawWidth The width to draw, in pixels.
+     * @param drawHeight The height to draw, in pixels.
+     */
+    public void draw(Graphics g, int drawWidth, int drawHeight)
+    {
+        Rectangle clip = g.getClipBounds();
+        if(clip == null) {
+            g.drawImage(image, 0, 0, drawWidth, drawHeight, null);
+            return;
+        }
+        // The cells under the clip, rounded outwards.
+        int firstCol = Math.max(0, (int) ((long) clip.x * width / drawWidth));
+        int endCol = Math.min(width, (int) (((long) (clip.x + clip.width) * width
+                                             + drawWidth - 1) / drawWidth));
+        int firstRow = Math.max(0, (int) ((long) clip.y * depth / drawHeight));
+        int endRow = Math.min(depth, (int) (((long) (clip.y + clip.height) * depth
+                                             + drawHeight - 1) / drawHeight));
+        if(firstCol >= endCol || firstRow >= endRow) {
+            return;
+        }
+        Rectangle area = toScreen(new Rectangle(firstCol, firstRow, endCol - firstCol,
+                                                endRow - firstRow), drawWidth, drawHeight);
+        g.drawImage(image, area.x, area.y, area.x + area.width, area.y + area.height,
+                    firstCol, firstRow, endCol, endRow, null);
+    }
+
+    /**
+     * Return where a rectangle of cells lies when the image is drawn
+     * scaled to the given size.
+     * @param cells The rectangle of cells, columns as x and rows as y.
+     * @param drawWidth The width the image is drawn at, in pixels.
+     * @param drawHeight The height the image is drawn at, in pixels.
+     * @return The rectangle of pixels.
+     */
+    public Rectangle toScreen(Rectangle cells, int drawWidth, int drawHeight)
+    {
+        int x = (int) ((long) cells.x * drawWidth / width);
+        int y = (int) ((long) cells.y * drawHeight / depth);
+        int endX = (int) ((long) (cells.x + cells.width) * drawWidth / width);
+        int endY = (int) ((long) (cells.y + cells.height) * drawHeight / depth);
+        return new Rectangle(x, y, endX - x, endY - y);
+    }
+
+    /**
+     * Resolve the color of each species once, for rendering.
+     * @param colors The colors of the classes of creatures.
+     * @return The RGB color of each species id.
+     */
+    public static int[] palette(Map<Class, Color> colors)
+    {
+        int[] palette = new int[Species.COUNT];
+        palette[Species.EMPTY] = EMPTY_COLOR.getRGB();
+        for(int species = 1; species < Species.COUNT; species++) {
+            Color color = colors.get(Species.classOf(species));
+            palette[species] = (color != null ? color : UNKNOWN_COLOR).getRGB();
+        }
+        return palette;
+    }
+
+    /**
+     * @return The image, one pixel per cell.
+     */
+    public BufferedImage getImage()
+    {
+        return image;
+    }
+
+    /**
+     * @return The depth of the ocean.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @return The width of the ocean.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+}
@@ -87,20 +87,24 @@ public class OceanStats
     
     /**
      * Generate counts of the number of animals.
-     * These are not kept up to date as animals
-     * are placed in the ocean, but only when a request
-     * is made for the information.
+     * The ocean keeps its counts up to date as animals come and go,
+     * so this takes time in the number of species, not of cells.
      * @param ocean The ocean to generate the stats for.
      */
     private void generateCounts(OceanView ocean)
     {
         reset();
-        for(int row = 0; row < ocean.getDepth(); row++) {
-            for(int col = 0; col < ocean.getWidth(); col++) {
-                Object animal = ocean.getObjectAt(row, col);
-                if(animal != null) {
-                    incrementCount(animal.getClass());
-                }
+        for(int species = 1; species < Species.COUNT; species++) {
+            int count = ocean.getCount(species);
+            Class animalClass = Species.classOf(species);
+            Counter counter = counters.get(animalClass);
+            if(counter == null && count > 0) {
+                // We do not have a counter for this species yet.
+                counter = new Counter(animalClass.getName());
+                counters.put(animalClass, counter);
+            }
+            if(counter != null) {
+                counter.add(count);
             }
         }
         countsValid = true;
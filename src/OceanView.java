@@ -11,9 +11,39 @@ public interface OceanView
     
     abstract public int getWidth();
     
-    abstract public Actor getObjectAt(Location location);
+    /**
+     * Return the species at the given location.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The species id, Species.EMPTY if the location is free.
+     */
+    abstract public int getSpeciesAt(int row, int col);
     
-    abstract public Actor getObjectAt(int row, int col);
+    /**
+     * Return the species in the given cell.
+     * @param cell The index of the cell, row * width + col.
+     * @return The species id, Species.EMPTY if the cell is free.
+     */
+    abstract public int getSpeciesAt(int cell);
+    
+    /**
+     * Return the number of actors of a species, kept up to date
+     * as actors come and go, so this does not scan the ocean.
+     * @param species A species id.
+     * @return The number of actors of that species.
+     */
+    abstract public int getCount(int species);
+    
+    /**
+     * Copy the species of every cell, row by row.
+     * @param into The array to copy into, one byte per cell.
+     */
+    default public void copySpecies(byte[] into)
+    {
+        for(int cell = 0; cell < into.length; cell++) {
+            into[cell] = (byte) getSpeciesAt(cell);
+        }
+    }
     
     abstract public List<Location> getFreeAdjacentLocations(Location location);
 }
@@ -1,19 +1,33 @@
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Provide control over the randomization of the simulation.
  * 
- * @author David J. Barnes and Michael Kolling
- * @version 2008.03.30
+ * Besides the shared Random, every thread has a current stream, a
+ * SplittableRandom that the actors draw from. A simulation installs a
+ * stream derived from its seed and the step number before each step,
+ * and one derived from the step's key and the tile number before each
+ * tile of a parallel step, or before each row when populating. So a run
+ * with a given seed gives the same results at any number of threads.
+ * 
+ * @author David J. Barnes, Michael Kolling and Gursimran Khalsa
+ * @version 17/10/2026
  */
 public class Randomizer
 {
     // The default seed for control of randomization.
-    private static final int SEED = 1111;
+    public static final int SEED = 1111;
     // A shared Random object, if required.
     private static final Random rand = new Random(SEED);
     // Determine whether a shared random generator is to be provided.
     private static final boolean useShared = true;
+    // The stream each thread currently draws from.
+    private static final ThreadLocal<SplittableRandom> current =
+        ThreadLocal.withInitial(() -> new SplittableRandom(SEED));
 
     /**
      * Constructor for objects of class Randomizer
@@ -38,13 +52,87 @@ public class Randomizer
     
     /**
      * Reset the randomization.
-     * This will have no effect if randomization is not through
-     * a shared Random generator.
+     * This resets the shared Random generator, if used, and the
+     * current stream of the calling thread.
      */
     public static void reset()
     {
         if(useShared) {
             rand.setSeed(SEED);
         }
+        current.set(new SplittableRandom(SEED));
+    }
+    
+    /**
+     * Return the stream the calling thread draws from.
+     * @return The current stream of this thread.
+     */
+    public static SplittableRandom current()
+    {
+        return current.get();
+    }
+    
+    /**
+     * Make the calling thread draw from the given stream.
+     * @param stream The stream to draw from, not null.
+     */
+    public static void use(SplittableRandom stream)
+    {
+        assert stream != null : "Stream is null";
+        
+        current.set(stream);
+    }
+    
+    /**
+     * Derive a new key from a key and an index, such as a seed and
+     * a step number, or a step's key and a tile number. Different
+     * indices give unrelated keys.
+     * @param key The key to derive from.
+     * @param index The index of the derived key.
+     * @return The derived key.
+     */
+    public static long derive(long key, long index)
+    {
+        // The finalizer of SplitMix64 applied to a Weyl sequence.
+        long z = key + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Make the calling thread draw from the stream of the given key.
+     * @param key A key, usually from derive.
+     */
+    public static void use(long key)
+    {
+        current.set(new SplittableRandom(key));
+    }
+    
+    /**
+     * Run an action for each index from 0 up to a count, each drawing
+     * from the stream of the key derived from a key and the index, so
+     * the outcome does not depend on how the indices are shared among
+     * threads. Actions for different indices may run at the same time.
+     * @param pool The pool to run the actions on, or null to run them
+     *             in order on the calling thread.
+     * @param key The key the streams derive from.
+     * @param count The number of indices.
+     * @param action The action, given the index.
+     */
+    public static void forEach(ForkJoinPool pool, long key, int count, IntConsumer action)
+    {
+        IntConsumer seeded = index -> {
+            use(derive(key, index));
+            action.accept(index);
+        };
+        if(pool == null) {
+            for(int index = 0; index < count; index++) {
+                seeded.accept(index);
+            }
+        }
+        else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(seeded)).join();
+        }
     }
 }
@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An ocean as it was at some step of a recorded run: the species in each
+ * cell and the number of each species, without any creatures to act.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class ReplayOcean implements OceanView
+{
+    // The depth and width of the ocean.
+    private final int depth, width;
+    // The species id in each cell.
+    private final byte[] species;
+    // The number of creatures of each species, and of empty cells.
+    private final int[] counts;
+    // The neighbourhoods of the cells.
+    private final NeighbourTable neighbours;
+
+    /**
+     * Create an ocean from the species in its cells.
+     * @param depth The depth of the ocean; positive.
+     * @param width The width of the ocean; positive.
+     * @param species The species id in each cell, row by row; kept, not copied.
+     */
+    public ReplayOcean(int depth, int width, byte[] species)
+    {
+        assert depth > 0 && width > 0 : "The dimensions are not positive";
+        assert species.length == depth * width : "Wrong number of cells";
+
+        this.depth = depth;
+        this.width = width;
+        this.species = species;
+        counts = new int[Species.COUNT];
+        for(byte s : species) {
+            counts[s]++;
+        }
+        neighbours = NeighbourTable.forSize(depth, width);
+    }
+
+    /**
+     * Make this a copy of another ocean of the same size, as it is now.
+     * @param ocean The ocean to copy.
+     */
+    public void copy(OceanView ocean)
+    {
+        assert ocean.getDepth() == depth && ocean.getWidth() == width :
+            "The ocean has another size";
+
+        ocean.copySpecies(species);
+        counts[Species.EMPTY] = species.length;
+        for(int s = 1; s < Species.COUNT; s++) {
+            counts[s] = ocean.getCount(s);
+            counts[Species.EMPTY] -= counts[s];
+        }
+    }
+
+    /**
+     * @return The depth of the ocean.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @return The width of the ocean.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Return the species at the given location.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The species id, Species.EMPTY if the location is free.
+     */
+    public int getSpeciesAt(int row, int col)
+    {
+        return species[row * width + col];
+    }
+
+    /**
+     * Return the species in the given cell.
+     * @param cell The index of the cell.
+     * @return The species id, Species.EMPTY if the cell is free.
+     */
+    public int getSpeciesAt(int cell)
+    {
+        return species[cell];
+    }
+
+    /**
+     * Copy the species of every cell, row by row.
+     * @param into The array to copy into, one byte per cell.
+     */
+    public void copySpecies(byte[] into)
+    {
+        System.arraycopy(species, 0, into, 0, species.length);
+    }
+
+    /**
+     * Return the number of creatures of a species.
+     * @param s A species id.
+     * @return The number of creatures of that species in the ocean.
+     */
+    public int getCount(int s)
+    {
+        return counts[s];
+    }
+
+    /**
+     * Return the free locations adjacent to the given one, in random order.
+     * @param location The location.
+     * @return The free adjacent locations.
+     */
+    public List<Location> getFreeAdjacentLocations(Location location)
+    {
+        int cell = location.getRow() * width + location.getCol();
+        int mask = neighbours.mask(cell);
+        int order = NeighbourTable.randomOrder(Randomizer.current());
+        List<Location> free = new ArrayList<Location>(NeighbourTable.MAX);
+        for(int i = 0; i < NeighbourTable.MAX; i++) {
+            int next = neighbours.neighbour(cell, mask, order, i);
+            if(next >= 0 && species[next] == Species.EMPTY) {
+                free.add(new Location(next / width, next % width));
+            }
+        }
+        return free;
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.concurrent.ThreadLocalRandom;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The events a simulation emits to Java Flight Recorder, so that what
+ * the simulation was doing can be lined up with the garbage collections
+ * and CPU use of a recording: its steps, resets and view updates, with
+ * the step and the number of creatures of each species, and on the actor
+ * engine, births, deaths and predation, off by default and sampled when
+ * on.
+ *
+ * An event is created where it happens and only filled in and committed
+ * if it should be; when no recording takes the event, its methods do
+ * nothing and the JIT compiler removes the event altogether.
+ *
+ * Of the births, deaths and predation taken by a recording, one in 100
+ * at random is committed, unless setSampleEvery or the system property
+ * ocean.jfr.sampleEvery says otherwise. The sampling is drawn only once an
+ * event should be committed, so it costs nothing without a recording.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public final class SimulationEvents
+{
+    // The number of sampled events per event committed.
+    private static volatile int sampleEvery =
+        Math.max(Integer.getInteger("ocean.jfr.sampleEvery", 100), 1);
+
+    /**
+     * No instances; the events are nested classes.
+     */
+    private SimulationEvents()
+    {
+    }
+
+    /**
+     * Set the share of births, deaths and predation committed.
+     * @param every The number of events per event committed; positive.
+     */
+    public static void setSampleEvery(int every)
+    {
+        assert every > 0 : "Sampling not positive";
+
+        sampleEvery = every;
+    }
+
+    /**
+     * Draw whether a sampled event that should be committed is.
+     * @return Whether to commit it.
+     */
+    static boolean sample()
+    {
+        int every = sampleEvery;
+        return every == 1 || ThreadLocalRandom.current().nextInt(every) == 0;
+    }
+
+    /**
+     * An event about the whole ocean, carrying the step and the number
+     * of creatures of each species.
+     */
+    @Category("Ocean Simulation")
+    @StackTrace(false)
+    abstract static class OceanEvent extends Event
+    {
+        @Label("Step")
+        int step;
+        @Label("Creatures")
+        int creatures;
+        @Label("Fish")
+        int fish;
+        @Label("Sharks")
+        int sharks;
+        @Label("Whales")
+        int whales;
+        @Label("Fishermen")
+        int fishermen;
+
+        /**
+         * Fill in the step and counts of a simulation.
+         * @param step The step the simulation is at.
+         * @param ocean The ocean of the simulation.
+         */
+        void set(int step, OceanView ocean)
+        {
+            this.step = step;
+            fish = ocean.getCount(Species.FISH);
+            sharks = ocean.getCount(Species.SHARK);
+            whales = ocean.getCount(Species.WHALE);
+            fishermen = ocean.getCount(Species.FISHERMAN);
+            creatures = fish + sharks + whales + fishermen;
+        }
+    }
+
+    /**
+     * A step of a simulation, with the counts after it.
+     */
+    @Name("ocean.Step")
+    @Label("Simulation Step")
+    public static class Step extends OceanEvent
+    {
+    }
+
+    /**
+     * A reset of a simulation, populating the ocean, with the counts after it.
+     */
+    @Name("ocean.Reset")
+    @Label("Simulation Reset")
+    public static class Reset extends OceanEvent
+    {
+    }
+
+    /**
+     * An update of the view of a simulation.
+     */
+    @Name("ocean.ViewUpdate")
+    @Label("View Update")
+    public static class ViewUpdate extends OceanEvent
+    {
+    }
+
+    /**
+     * An event about single creatures, off by default and sampled.
+     */
+    @Category("Ocean Simulation")
+    @Enabled(false)
+    abstract static class SampledEvent extends Event
+    {
+        /**
+         * @return Whether the event should be committed, and is sampled.
+         */
+        boolean shouldSample()
+        {
+            return shouldCommit() && sample();
+        }
+    }
+
+    /**
+     * The birth of a litter.
+     */
+    @Name("ocean.Birth")
+    @Label("Birth")
+    public static class Birth extends SampledEvent
+    {
+        @Label("Species")
+        String species;
+        @Label("Litter Size")
+        int litter;
+    }
+
+    /**
+     * The death of an animal.
+     */
+    @Name("ocean.Death")
+    @Label("Death")
+    public static class Death extends SampledEvent
+    {
+        @Label("Species")
+        String species;
+        @Label("Age")
+        int age;
+    }
+
+    /**
+     * A predator eating its prey.
+     */
+    @Name("ocean.Predation")
+    @Label("Predation")
+    public static class Predation extends SampledEvent
+    {
+        @Label("Predator")
+        String predator;
+        @Label("Prey")
+        String prey;
+    }
+}
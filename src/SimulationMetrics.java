@@ -0,0 +1,474 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * What a Simulator has been doing, recorded as it runs: the steps and
+ * their latencies, the number of creatures, births, deaths by cause,
+ * the time spent acting and updating the view, and the cost of an act
+ * by species. Counters are LongAdders, so threads stepping tiles at the
+ * same time record without contention, and recording is cheap enough
+ * to stay on. The cost of single acts is measured on one step in every
+ * so many only, since timing each act costs about as much as the act.
+ *
+ * The metrics can be polled as a Snapshot, and exposed over JMX as an
+ * MXBean, for JConsole or any other JMX client.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean
+{
+    // The default number of steps between steps whose acts are timed.
+    public static final int DEFAULT_ACT_SAMPLE_INTERVAL = 16;
+    // The number of buckets of the latency histogram, one per power of two.
+    private static final int BUCKETS = 64;
+
+    // The number of steps between steps whose acts are timed.
+    private final int actSampleInterval;
+    // The time the metrics were created or last reset.
+    private volatile long start;
+    // The number of steps, and their total time.
+    private final LongAdder steps, stepTime;
+    // The number of steps by the power of two just above their latency.
+    private final LongAdder[] latency;
+    // The number of creatures after the last step.
+    private volatile int actorCount;
+    // The number of births, and of deaths by cause.
+    private final LongAdder births;
+    private final LongAdder[] deaths;
+    // The time spent acting, and updating the view.
+    private final LongAdder actTime, viewTime;
+    // The number and total time of the acts timed, by species.
+    private final LongAdder[] speciesActs, speciesActTime;
+    // The name the metrics are registered under, or null.
+    private ObjectName registered;
+
+    /**
+     * Create metrics timing the acts of one step in every
+     * DEFAULT_ACT_SAMPLE_INTERVAL.
+     */
+    public SimulationMetrics()
+    {
+        this(DEFAULT_ACT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Create metrics.
+     * @param actSampleInterval The number of steps between steps whose
+     *                          acts are timed; positive.
+     */
+    public SimulationMetrics(int actSampleInterval)
+    {
+        assert actSampleInterval > 0 : "Sample interval not positive";
+
+        this.actSampleInterval = actSampleInterval;
+        steps = new LongAdder();
+        stepTime = new LongAdder();
+        latency = adders(BUCKETS);
+        births = new LongAdder();
+        deaths = adders(DeathCause.values().length);
+        actTime = new LongAdder();
+        viewTime = new LongAdder();
+        speciesActs = adders(Species.COUNT);
+        speciesActTime = adders(Species.COUNT);
+        start = System.nanoTime();
+    }
+
+    /**
+     * @return An array of new adders.
+     */
+    private static LongAdder[] adders(int count)
+    {
+        LongAdder[] adders = new LongAdder[count];
+        for(int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Return whether the acts of a step are to be timed.
+     * @param step The number of the step.
+     * @return Whether to time them.
+     */
+    public boolean timesActs(int step)
+    {
+        return step % actSampleInterval == 0;
+    }
+
+    /**
+     * Record a step.
+     * @param time The time of the whole step.
+     * @param act The time spent letting creatures act.
+     * @param view The time spent updating the view.
+     * @param creatures The number of creatures after the step.
+     */
+    public void recordStep(long time, long act, long view, int creatures)
+    {
+        steps.increment();
+        stepTime.add(time);
+        latency[BUCKETS - Long.numberOfLeadingZeros(Math.max(time, 1))].increment();
+        actTime.add(act);
+        viewTime.add(view);
+        actorCount = creatures;
+    }
+
+    /**
+     * Record births.
+     * @param count The number of creatures born.
+     */
+    public void recordBirths(int count)
+    {
+        births.add(count);
+    }
+
+    /**
+     * Record a death.
+     * @param cause Why the creature died.
+     */
+    public void recordDeath(DeathCause cause)
+    {
+        deaths[cause.ordinal()].increment();
+    }
+
+    /**
+     * Record a timed act.
+     * @param species The species of the creature that acted.
+     * @param time The time of the act.
+     */
+    public void recordAct(int species, long time)
+    {
+        speciesActs[species].increment();
+        speciesActTime[species].add(time);
+    }
+
+    /**
+     * Forget all that was recorded.
+     */
+    public void reset()
+    {
+        for(LongAdder[] adders : new LongAdder[][] { latency, deaths, speciesActs, speciesActTime }) {
+            for(LongAdder adder : adders) {
+                adder.reset();
+            }
+        }
+        steps.reset();
+        stepTime.reset();
+        births.reset();
+        actTime.reset();
+        viewTime.reset();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Take a snapshot of the metrics. The counters are read one after
+     * the other while threads may still record, so the values of a
+     * snapshot taken during a step need not agree exactly.
+     * @return The snapshot.
+     */
+    public Snapshot snapshot()
+    {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Register these metrics with the platform MBean server.
+     * @param name The name to register under, such as that of the run.
+     * @return The object name registered.
+     * @throws JMException If the metrics cannot be registered.
+     */
+    public ObjectName register(String name) throws JMException
+    {
+        assert registered == null : "Already registered";
+
+        ObjectName objectName = new ObjectName("Simulation", "name", ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        registered = objectName;
+        return objectName;
+    }
+
+    /**
+     * Unregister these metrics from the platform MBean server, if they
+     * are registered.
+     * @throws JMException If the metrics cannot be unregistered.
+     */
+    public void unregister() throws JMException
+    {
+        if(registered != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            registered = null;
+        }
+    }
+
+    /**
+     * @return The number of steps run.
+     */
+    public long getSteps()
+    {
+        return steps.sum();
+    }
+
+    /**
+     * @return The number of steps run per second.
+     */
+    public double getStepsPerSecond()
+    {
+        return snapshot().getStepsPerSecond();
+    }
+
+    /**
+     * @return The mean time of a step.
+     */
+    public double getMeanStepLatency()
+    {
+        return snapshot().getMeanStepLatency();
+    }
+
+    /**
+     * @return The time within which half the steps ran.
+     */
+    public long getMedianStepLatency()
+    {
+        return snapshot().getStepLatency(0.5);
+    }
+
+    /**
+     * @return The time within which 99 in 100 steps ran.
+     */
+    public long getStepLatency99()
+    {
+        return snapshot().getStepLatency(0.99);
+    }
+
+    /**
+     * @return The number of creatures after the last step.
+     */
+    public int getActorCount()
+    {
+        return actorCount;
+    }
+
+    /**
+     * @return The number of creatures born.
+     */
+    public long getBirths()
+    {
+        return births.sum();
+    }
+
+    /**
+     * @return The number of creatures that died, by cause.
+     */
+    public Map<String, Long> getDeaths()
+    {
+        Map<String, Long> byCause = new LinkedHashMap<String, Long>();
+        for(DeathCause cause : DeathCause.values()) {
+            byCause.put(cause.name(), deaths[cause.ordinal()].sum());
+        }
+        return byCause;
+    }
+
+    /**
+     * @return The time spent letting creatures act.
+     */
+    public long getActTime()
+    {
+        return actTime.sum();
+    }
+
+    /**
+     * @return The time spent updating the view.
+     */
+    public long getViewUpdateTime()
+    {
+        return viewTime.sum();
+    }
+
+    /**
+     * @return The mean time of one act of a creature, by species.
+     */
+    public Map<String, Double> getActCost()
+    {
+        Snapshot snapshot = snapshot();
+        Map<String, Double> bySpecies = new LinkedHashMap<String, Double>();
+        for(int s = 1; s < Species.COUNT; s++) {
+            bySpecies.put(Species.classOf(s).getName(), snapshot.getActCost(s));
+        }
+        return bySpecies;
+    }
+
+    /**
+     * The metrics at one moment. Times are in nanoseconds; totals are
+     * since the metrics were created or last reset.
+     */
+    public static class Snapshot
+    {
+        // When the snapshot was taken, and how long after the start.
+        private final long time, elapsed;
+        private final long steps, stepTime;
+        private final long[] latency;
+        private final int actorCount;
+        private final long births;
+        private final long[] deaths;
+        private final long actTime, viewTime;
+        private final long[] speciesActs, speciesActTime;
+
+        /**
+         * Take a snapshot of metrics.
+         * @param metrics The metrics.
+         */
+        private Snapshot(SimulationMetrics metrics)
+        {
+            time = System.nanoTime();
+            elapsed = time - metrics.start;
+            steps = metrics.steps.sum();
+            stepTime = metrics.stepTime.sum();
+            latency = sums(metrics.latency);
+            actorCount = metrics.actorCount;
+            births = metrics.births.sum();
+            deaths = sums(metrics.deaths);
+            actTime = metrics.actTime.sum();
+            viewTime = metrics.viewTime.sum();
+            speciesActs = sums(metrics.speciesActs);
+            speciesActTime = sums(metrics.speciesActTime);
+        }
+
+        /**
+         * @return The sums of adders.
+         */
+        private static long[] sums(LongAdder[] adders)
+        {
+            long[] sums = new long[adders.length];
+            for(int i = 0; i < adders.length; i++) {
+                sums[i] = adders[i].sum();
+            }
+            return sums;
+        }
+
+        /**
+         * @return The value of System.nanoTime when the snapshot was taken.
+         */
+        public long getTime()
+        {
+            return time;
+        }
+
+        /**
+         * @return The number of steps run.
+         */
+        public long getSteps()
+        {
+            return steps;
+        }
+
+        /**
+         * @return The number of steps run per second.
+         */
+        public double getStepsPerSecond()
+        {
+            return elapsed == 0 ? 0 : steps * 1e9 / elapsed;
+        }
+
+        /**
+         * Return the number of steps run per second between two snapshots.
+         * @param earlier A snapshot of the same metrics taken earlier,
+         *                with no reset in between.
+         * @return The number of steps per second.
+         */
+        public double getStepsPerSecond(Snapshot earlier)
+        {
+            long between = time - earlier.time;
+            return between == 0 ? 0 : (steps - earlier.steps) * 1e9 / between;
+        }
+
+        /**
+         * @return The mean time of a step.
+         */
+        public double getMeanStepLatency()
+        {
+            return steps == 0 ? 0 : (double) stepTime / steps;
+        }
+
+        /**
+         * Return a time within which a share of the steps ran, to
+         * within a factor of two.
+         * @param quantile The share of the steps, 0 < quantile <= 1.
+         * @return The time, 0 if no step ran.
+         */
+        public long getStepLatency(double quantile)
+        {
+            assert 0 < quantile && quantile <= 1 : "Quantile out of range";
+
+            long total = 0;
+            for(long count : latency) {
+                total += count;
+            }
+            long seen = 0;
+            for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += latency[bucket];
+                if(seen > 0 && seen >= quantile * total) {
+                    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return The number of creatures after the last step.
+         */
+        public int getActorCount()
+        {
+            return actorCount;
+        }
+
+        /**
+         * @return The number of creatures born.
+         */
+        public long getBirths()
+        {
+            return births;
+        }
+
+        /**
+         * Return the number of creatures that died of a cause.
+         * @param cause The cause.
+         * @return The number of deaths.
+         */
+        public long getDeaths(DeathCause cause)
+        {
+            return deaths[cause.ordinal()];
+        }
+
+        /**
+         * @return The time spent letting creatures act.
+         */
+        public long getActTime()
+        {
+            return actTime;
+        }
+
+        /**
+         * @return The time spent updating the view.
+         */
+        public long getViewUpdateTime()
+        {
+            return viewTime;
+        }
+
+        /**
+         * Return the mean time of one act of a creature of a species,
+         * over the steps whose acts were timed.
+         * @param species The species.
+         * @return The mean time, 0 if none was timed.
+         */
+        public double getActCost(int species)
+        {
+            long acts = speciesActs[species];
+            return acts == 0 ? 0 : (double) speciesActTime[species] / acts;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.Map;
+
+/**
+ * The management interface of SimulationMetrics, for JMX clients such
+ * as JConsole. Times are in nanoseconds; rates and totals are since the
+ * metrics were created or last reset.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public interface SimulationMetricsMXBean
+{
+    /**
+     * @return The number of steps run.
+     */
+    public long getSteps();
+
+    /**
+     * @return The number of steps run per second.
+     */
+    public double getStepsPerSecond();
+
+    /**
+     * @return The mean time of a step.
+     */
+    public double getMeanStepLatency();
+
+    /**
+     * @return The time within which half the steps ran.
+     */
+    public long getMedianStepLatency();
+
+    /**
+     * @return The time within which 99 in 100 steps ran.
+     */
+    public long getStepLatency99();
+
+    /**
+     * @return The number of creatures after the last step.
+     */
+    public int getActorCount();
+
+    /**
+     * @return The number of creatures born.
+     */
+    public long getBirths();
+
+    /**
+     * @return The number of creatures that died, by cause.
+     */
+    public Map<String, Long> getDeaths();
+
+    /**
+     * @return The time spent letting creatures act.
+     */
+    public long getActTime();
+
+    /**
+     * @return The time spent updating the view.
+     */
+    public long getViewUpdateTime();
+
+    /**
+     * @return The mean time of one act of a creature, by species.
+     */
+    public Map<String, Double> getActCost();
+
+    /**
+     * Forget all that was recorded.
+     */
+    public void reset();
+}
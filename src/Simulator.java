@@ -3,7 +3,8 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.HashSet;
-import java.util.stream.Collectors;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A simple predator-prey simulator, based on a rectangular ocean
@@ -14,17 +15,43 @@ import java.util.stream.Collectors;
  */
 public class Simulator
 {
-
+    // The default number of steps between full checks when sampling.
+    public static final int DEFAULT_CHECK_INTERVAL = 100;
+    
     // List of actors in the ocean.
     private final List<Actor> actors;
-    // The current state of the ocean.
+    // Space for the actors born during a step, reused between steps.
+    private final List<Actor> newActors;
+    // The current state of the ocean, or null when running compact.
     private final Ocean ocean;
+    // The state of the compact engine, or null when actors are objects.
+    private final ArrayOcean cells;
     // The current step of the simulation.
     private int step;
-    // A factory for creating actors - unused as yet.
+    // The seed the random streams of the simulation derive from.
+    private long seed;
+    // A factory for creating actors, or null to leave the ocean empty.
     private final Factory factory;
     // A view for watching the simulation
     private final View view;
+    // The pool for parallel steps, or null to step sequentially.
+    private ForkJoinPool pool;
+    // Where what the simulation does is recorded, or null.
+    private SimulationMetrics metrics;
+    // The phases a dense compact ocean steps in, or null.
+    private StepPipeline pipeline;
+    // The division of the ocean into tiles for parallel steps.
+    private TileGrid tiles;
+    // Per tile, the actors acting in it during a parallel step.
+    private List<List<Actor>> tileActors;
+    // Per tile, the actors born in it during a parallel step.
+    private List<List<Actor>> tileNewborns;
+    // How thoroughly the simulation checks itself after each step.
+    private CheckLevel checkLevel;
+    // The number of steps between full checks when sampling.
+    private int checkInterval;
+    // The cells of the listed actors, marked during a full check.
+    private final BitSet listed;
     
     /**
      * Internal class invariants:
@@ -32,40 +59,93 @@ public class Simulator
      * Same actors on ocean and in list.
      * Locations in ocean and in actors should agree.
      * Simulation and all actors use the same ocean.
+     * Runs all checks, whatever the check level.
      */
     public void sane()
     {
-        assert actors != null : "The list of actors is null";
-        assert ocean != null : "The ocean is null";
-        assert step >= 0 : "Negative step";  
-        assert view != null : "The view is null";
-
-        // All actors in the list are alive
-        for (Actor actor : actors) {
-            assert actor.isActive() : "Dead actor in list";
+        check(CheckLevel.FULL);
+    }
+    
+    /**
+     * Check the class invariants as thoroughly as the check level says.
+     */
+    private void checkInvariants()
+    {
+        CheckLevel level = checkLevel;
+        if(level == CheckLevel.SAMPLED) {
+            level = step % checkInterval == 0 ? CheckLevel.FULL : CheckLevel.CHEAP;
+        }
+        check(level);
+    }
+    
+    /**
+     * Check the class invariants at a given level.
+     * Cheap checks look at each listed actor on its own.
+     * Full checks also scan the ocean, so that together the list and the
+     * ocean are known to hold the same actors. An actor in the list is in
+     * its own cell, so marking the cells of the listed actors is enough to
+     * tell whether an actor on the ocean is listed, and whether an actor
+     * is listed twice.
+     * @param level The level of checking.
+     */
+    private void check(CheckLevel level)
+    {
+        if(level == CheckLevel.OFF) {
+            return;
+        }
+        CheckLevel.check(actors != null, "The list of actors is null");
+        CheckLevel.check((ocean == null) != (cells == null), "Not exactly one ocean");
+        CheckLevel.check(step >= 0, "Negative step");
+        CheckLevel.check(view != null, "The view is null");
+        
+        if(cells != null) {
+            CheckLevel.check(actors.isEmpty(), "Actor objects in a compact simulation");
+            if(level == CheckLevel.FULL) {
+                cells.sane();
+            }
+            return;
         }
         
-        // First check all actors in the list are in the ocean
+        // All actors in the list are alive, in the ocean
         // and ocean and location agree.
+        boolean full = level == CheckLevel.FULL;
+        if(full) {
+            listed.clear();
+        }
         for (Actor actor : actors) {
-            assert actor.getOcean() == ocean : 
+            CheckLevel.check(actor.isActive(), "Dead actor in list");
+            CheckLevel.check(actor.getOcean() == ocean,
                 "An actor has a different ocean: " + 
-                actor.getOcean() + " " + ocean;
-            assert ocean.getObjectAt(actor.getLocation()) == actor : 
-                "actor not at its location in the ocean";
+                actor.getOcean() + " " + ocean);
+            int cell = actor.getCellIndex();
+            CheckLevel.check(ocean.inside(cell) && ocean.getObjectAt(cell) == actor,
+                "actor not at its location in the ocean");
+            if(full) {
+                CheckLevel.check(!listed.get(cell), "An actor is listed twice");
+                listed.set(cell);
+            }
+        }
+        if(!full) {
+            return;
         }
         
         // Then check all actors in the ocean are in the list;
         // Together ensures that both are the same set of actors.
-        for(int row = 0; row < ocean.getDepth(); row++) {
-            for(int col = 0; col < ocean.getWidth(); col++) {
-                Actor actor = ocean.getObjectAt(new Location(row,col));
-                if (actor != null) {
-                    assert actors.contains(actor) :
-                        "List does not contain an actor on the ocean.";
-                }
+        int[] found = new int[Species.COUNT];
+        for(int cell = 0; cell < ocean.getDepth() * ocean.getWidth(); cell++) {
+            Actor actor = ocean.getObjectAt(cell);
+            if (actor != null) {
+                CheckLevel.check(listed.get(cell),
+                    "List does not contain an actor on the ocean.");
+                found[Species.of(actor)]++;
             }
         }
+        
+        // The ocean's counts agree with its contents.
+        for(int species = 1; species < Species.COUNT; species++) {
+            CheckLevel.check(ocean.getCount(species) == found[species],
+                "Count of species " + species + " is wrong");
+        }
     }
     
     /**
@@ -77,18 +157,311 @@ public class Simulator
      */
     public Simulator(Factory factory, View view, int depth, int width)
     {
-        assert (width > 0 && depth > 0) : 
-            "The dimensions are not greater than zero.";
-            
+        this(factory, view, depth, width, false);
+    }
+    
+    /**
+     * Create a simulation ocean with the given size.
+     * A compact simulation keeps its creatures as primitive state in an
+     * ArrayOcean instead of as actor objects on an Ocean, which takes far
+     * less memory and time per step on big oceans.
+     * @param factory A factory for creating the actors.
+     * @param view A view for displaying the simulation.
+     * @param depth Depth of the ocean. Must be greater than zero.
+     * @param width Width of the ocean. Must be greater than zero.
+     * @param compact Whether to run on the compact engine.
+     */
+    public Simulator(Factory factory, View view, int depth, int width, boolean compact)
+    {
+        this(factory, view, depth, width, compact, Randomizer.SEED, defaultCheckLevel());
+    }
+    
+    /**
+     * Create a simulation ocean with the given size, seed and check
+     * level, populating it once, with that seed and at that level, as
+     * the runs of a sweep want, rather than populating it again by
+     * setSeed.
+     * @param factory A factory for creating the actors.
+     * @param view A view for displaying the simulation.
+     * @param depth Depth of the ocean. Must be greater than zero.
+     * @param width Width of the ocean. Must be greater than zero.
+     * @param compact Whether to run on the compact engine.
+     * @param seed The seed of the simulation.
+     * @param level How thoroughly the simulation checks itself, not null.
+     */
+    public Simulator(Factory factory, View view, int depth, int width, boolean compact,
+                     long seed, CheckLevel level)
+    {
+        this(factory, view, compact ? null : new Ocean(depth, width),
+             compact ? new ArrayOcean(depth, width) : null, seed, level);
+    }
+    
+    /**
+     * Create a compact simulation on the given ocean, which may keep
+     * its cells in chunks, for huge oceans where creatures are sparse.
+     * @param factory A factory for creating the actors.
+     * @param view A view for displaying the simulation.
+     * @param cells The compact ocean, dense or chunked; it is emptied.
+     */
+    public Simulator(Factory factory, View view, ArrayOcean cells)
+    {
+        this(factory, view, null, cells, Randomizer.SEED, defaultCheckLevel());
+    }
+    
+    /**
+     * Create a simulation on exactly one of the given oceans.
+     * @param factory A factory for creating the actors.
+     * @param view A view for displaying the simulation.
+     * @param ocean The ocean of actor objects, or null.
+     * @param cells The compact ocean, or null.
+     * @param seed The seed of the simulation.
+     * @param level How thoroughly the simulation checks itself, not null.
+     */
+    private Simulator(Factory factory, View view, Ocean ocean, ArrayOcean cells,
+                      long seed, CheckLevel level)
+    {
+        assert (ocean == null) != (cells == null) : "Not exactly one ocean";
+        
         this.factory = factory;
         this.view = view;
-
+        this.seed = seed;
+        checkInterval = DEFAULT_CHECK_INTERVAL;
+        listed = new BitSet();
         actors = new ArrayList<Actor>();
-        ocean = new Ocean(depth, width);
-       
+        newActors = new ArrayList<Actor>();
+        this.ocean = ocean;
+        this.cells = cells;
+        setCheckLevel(level);
+        
         // Setup a valid starting point.
         reset();
-        sane();
+    }
+    
+    /**
+     * Return the check level a simulation starts with: full while
+     * assertions are on, as always; else none at all.
+     * @return The check level.
+     */
+    private static CheckLevel defaultCheckLevel()
+    {
+        boolean assertions = false;
+        assert assertions = true;
+        return assertions ? CheckLevel.FULL : CheckLevel.OFF;
+    }
+    
+    /**
+     * Choose how steps are run. With no threads, actors act one after
+     * the other in the order of the list of actors. With one or more
+     * threads, the ocean is divided into tiles which are stepped in
+     * four phases; the tiles of a phase do not touch each other and
+     * run at the same time on a pool of the given number of threads.
+     * A chunked ocean always steps in tiles, its chunks, so its outcome
+     * is the same with or without threads.
+     * @param threads The number of threads, or 0 to step sequentially.
+     */
+    public void setParallelism(int threads)
+    {
+        assert threads >= 0 : "Negative number of threads";
+        
+        if(pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        if(threads > 0) {
+            pool = new ForkJoinPool(threads);
+            if(cells != null && cells.isChunked()) {
+                return;
+            }
+            OceanView view = getOceanView();
+            tiles = new TileGrid(view.getDepth(), view.getWidth(),
+                                 TileGrid.DEFAULT_TILE_SIZE);
+            tileActors = new ArrayList<List<Actor>>();
+            tileNewborns = new ArrayList<List<Actor>>();
+            for(int tile = 0; tile < tiles.getTileCount(); tile++) {
+                tileActors.add(new ArrayList<Actor>());
+                tileNewborns.add(new ArrayList<Actor>());
+            }
+        }
+    }
+    
+    /**
+     * Choose whether animals that die are kept in pools per species and
+     * brought back by later births and resets, instead of new ones being
+     * allocated. The dead are pooled once they leave the list of actors,
+     * at the end of a step, so an animal seen dead during a step stays so
+     * for the rest of it. Runs give the same results either way. This
+     * has no effect on the compact engine, which keeps no actor objects.
+     * @param on Whether to pool dead animals.
+     */
+    public void setPooling(boolean on)
+    {
+        if(ocean != null) {
+            ocean.setPooling(on);
+        }
+    }
+    
+    /**
+     * Choose where the simulation records what it does as it steps:
+     * the latency of steps, the number of creatures, births, deaths by
+     * cause, the time spent acting and updating the view, and the cost
+     * of an act by species.
+     * @param metrics The metrics, or null to record nothing.
+     */
+    public void setMetrics(SimulationMetrics metrics)
+    {
+        this.metrics = metrics;
+        if(cells != null) {
+            cells.setMetrics(metrics);
+        }
+        else {
+            ocean.setMetrics(metrics);
+        }
+    }
+    
+    /**
+     * Return where the simulation records what it does.
+     * @return The metrics, or null if there are none.
+     */
+    public SimulationMetrics getMetrics()
+    {
+        return metrics;
+    }
+    
+    /**
+     * Choose whether a dense compact ocean steps in the phases of a
+     * pipeline, each over all creatures in bulk, instead of each creature
+     * acting in turn. Such steps run on the calling thread, whatever the
+     * parallelism, and follow rules of their own, so a run with a
+     * pipeline differs from one without. This has no effect on the actor
+     * engine or a chunked ocean.
+     * @param pipeline The pipeline, or null to step creature by creature.
+     */
+    public void setPipeline(StepPipeline pipeline)
+    {
+        this.pipeline = pipeline;
+    }
+    
+    /**
+     * Return the pipeline steps run in.
+     * @return The pipeline, or null if there is none.
+     */
+    public StepPipeline getPipeline()
+    {
+        return pipeline;
+    }
+    
+    /**
+     * Set the breeding constants of the simulation's creatures.
+     * They hold from the next step; the table is used, not copied.
+     * @param breeding The breeding constants, not null.
+     */
+    public void setBreeding(Breeding breeding)
+    {
+        if(cells != null) {
+            cells.setBreeding(breeding);
+        }
+        else {
+            ocean.setBreeding(breeding);
+        }
+    }
+    
+    /**
+     * Return the breeding constants of the simulation's creatures.
+     * @return The breeding constants.
+     */
+    public Breeding getBreeding()
+    {
+        if(cells != null) {
+            return cells.getBreeding();
+        }
+        return ocean.getBreeding();
+    }
+    
+    /**
+     * Set the rules of the simulation's species, breeding constants
+     * included. They hold from the next step; the table is used, not copied.
+     * Reset afterwards for the creatures to be created by the new rules,
+     * as creatures may not be older than their maximum age.
+     * @param table The species table, not null.
+     */
+    public void setSpeciesTable(SpeciesTable table)
+    {
+        if(cells != null) {
+            cells.setSpeciesTable(table);
+        }
+        else {
+            ocean.setSpeciesTable(table);
+        }
+    }
+    
+    /**
+     * Return the rules of the simulation's species.
+     * @return The species table.
+     */
+    public SpeciesTable getSpeciesTable()
+    {
+        if(cells != null) {
+            return cells.getSpeciesTable();
+        }
+        return ocean.getSpeciesTable();
+    }
+    
+    /**
+     * Choose how thoroughly the simulation checks itself after each step.
+     * At the full level, the animals of this simulation also check
+     * themselves on every access; at other levels they do not.
+     * @param level The level of checking.
+     */
+    public void setCheckLevel(CheckLevel level)
+    {
+        assert level != null : "The check level is null";
+        
+        checkLevel = level;
+        if(ocean != null) {
+            ocean.setSelfChecking(level == CheckLevel.FULL);
+        }
+    }
+    
+    /**
+     * Choose how many steps pass between full checks when sampling.
+     * @param steps The number of steps; positive.
+     */
+    public void setCheckInterval(int steps)
+    {
+        assert steps > 0 : "The check interval is not positive";
+        
+        checkInterval = steps;
+    }
+    
+    /**
+     * Return how thoroughly the simulation checks itself.
+     * @return The level of checking.
+     */
+    public CheckLevel getCheckLevel()
+    {
+        return checkLevel;
+    }
+    
+    /**
+     * Set the seed of the simulation and reset it to a starting position.
+     * The random streams of populating and of every step derive from the
+     * seed, so runs with the same seed give the same results, also in
+     * parallel at any number of threads.
+     * @param seed The seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+        reset();
+    }
+    
+    /**
+     * Return the seed of the simulation.
+     * @return The seed.
+     */
+    public long getSeed()
+    {
+        return seed;
     }
     
     /**
@@ -103,12 +476,72 @@ public class Simulator
      * Getter for the ocean.
      * Would be nicer to expose only a variant of the ocean with few
      * getter methods itself.
+     * @return The ocean, or null if the simulation is compact.
      */
     public Ocean getOcean()
     {
         return ocean;
     }
     
+    /**
+     * Return what views may see of the ocean, for either engine.
+     * @return The ocean or the compact ocean.
+     */
+    public OceanView getOceanView()
+    {
+        if(cells != null) {
+            return cells;
+        }
+        return ocean;
+    }
+    
+    /**
+     * Return the list of actors, for saving and restoring the simulation.
+     * @return The live list, in the order the actors act.
+     */
+    List<Actor> getActors()
+    {
+        return actors;
+    }
+    
+    /**
+     * Return the compact ocean, for saving and restoring the simulation.
+     * @return The compact ocean, or null if actors are objects.
+     */
+    ArrayOcean getCells()
+    {
+        return cells;
+    }
+    
+    /**
+     * Replace the state of the simulation, as when restoring a checkpoint.
+     * The ocean and the list of actors are emptied and the step and seed
+     * set; then the given action refills them.
+     * @param step The step to continue from; not negative.
+     * @param seed The seed of the random streams.
+     * @param refill Fills the ocean, and the list of actors if any.
+     */
+    void restore(int step, long seed, Runnable refill)
+    {
+        assert step >= 0 : "Negative step";
+        
+        this.step = step;
+        this.seed = seed;
+        actors.clear();
+        if(cells != null) {
+            cells.clear();
+        }
+        else {
+            ocean.clear();
+        }
+        refill.run();
+        
+        // Update the view of the simulation to the new state.
+        updateView();
+        
+        checkInvariants();
+    }
+    
     /**
      * Run the simulation from its current state for a single step.
      * Iterate over the whole ocean updating the state of each
@@ -116,34 +549,165 @@ public class Simulator
      */
     public void simulateOneStep()
     {
-        sane();
-        
+        SimulationEvents.Step event = new SimulationEvents.Step();
+        event.begin();
+        long start = metrics == null ? 0 : System.nanoTime();
         step++;
-
-        // Provide space for newborn actors.
-        List<Actor> newActors = new ArrayList<Actor>(); 
+        long key = Randomizer.derive(seed, step);
+        Randomizer.use(key);
+        boolean timingActs = metrics != null && metrics.timesActs(step);
+        
+        if(cells != null) {
+            cells.setTimingActs(timingActs);
+            if(cells.isChunked()) {
+                cells.simulateOneStep(pool, key);
+            }
+            else if(pipeline != null) {
+                cells.simulateOneStep(pipeline);
+            }
+            else if(pool != null) {
+                cells.simulateOneStep(tiles, pool, key);
+            }
+            else {
+                cells.simulateOneStep();
+            }
+        }
+        else if(pool != null) {
+            actAllTiled(key, timingActs);
+        }
+        else {
+            actAll(timingActs);
+        }
+        long acted = metrics == null ? 0 : System.nanoTime();
+        
+        // Update the view of the simulation to the new state.
+        updateView();
+        long updated = metrics == null ? 0 : System.nanoTime();
+        
+        checkInvariants();
+        
+        if(metrics != null) {
+            OceanView oceanView = getOceanView();
+            int creatures = 0;
+            for(int s = 1; s < Species.COUNT; s++) {
+                creatures += oceanView.getCount(s);
+            }
+            // The step includes checking the invariants; the view update does not.
+            metrics.recordStep(System.nanoTime() - start, acted - start, updated - acted, creatures);
+        }
         
+        event.end();
+        if(event.shouldCommit()) {
+            event.set(step, getOceanView());
+            event.commit();
+        }
+    }
+    
+    /**
+     * Update the view of the simulation to its state.
+     */
+    private void updateView()
+    {
+        SimulationEvents.ViewUpdate event = new SimulationEvents.ViewUpdate();
+        event.begin();
+        view.update(this);
+        event.end();
+        if(event.shouldCommit()) {
+            event.set(step, getOceanView());
+            event.commit();
+        }
+    }
+    
+    /**
+     * Let all actor objects act once, then update the list of actors.
+     * @param timed Whether to record the time of each act.
+     */
+    private void actAll(boolean timed)
+    {
         // Let all actors act.
         for(Iterator<Actor> it = actors.iterator(); it.hasNext(); ) {
-            it.next().act(newActors);
+            act(it.next(), newActors, timed);
         }
-               
+        
         // Add the newly born actors to the main lists.
         actors.addAll(newActors);
+        newActors.clear();
         
-        // Remove dead actors.
-        for(Iterator<Actor> it = actors.iterator(); it.hasNext(); ) {
-            if(! it.next().isActive()) {
-                it.remove();
+        removeDead();
+    }
+    
+    /**
+     * Let all actor objects act once, tile by tile in parallel, then
+     * update the list of actors. Each actor acts in the tile it is in
+     * at the start of the step, so an actor moving into another tile
+     * does not act twice.
+     * @param key The key of the step's random streams.
+     * @param timed Whether to record the time of each act.
+     */
+    private void actAllTiled(long key, boolean timed)
+    {
+        for(Actor actor : actors) {
+            tileActors.get(tiles.tileOf(actor.getCellIndex())).add(actor);
+        }
+        
+        tiles.runPhases(pool, key, tile -> {
+            List<Actor> newActors = tileNewborns.get(tile);
+            for(Actor actor : tileActors.get(tile)) {
+                act(actor, newActors, timed);
             }
+        });
+        
+        for(int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tileActors.get(tile).clear();
+            actors.addAll(tileNewborns.get(tile));
+            tileNewborns.get(tile).clear();
         }
-
-        // Update the view of the simulation to the new state.
-        view.update(this);
         
-        sane();
+        removeDead();
     }
-        
+    
+    /**
+     * Let an actor act once.
+     * @param actor The actor.
+     * @param newborns The list to add the actors born to.
+     * @param timed Whether to record the time of the act.
+     */
+    private void act(Actor actor, List<Actor> newborns, boolean timed)
+    {
+        if(timed) {
+            int s = Species.of(actor);
+            long start = System.nanoTime();
+            actor.act(newborns);
+            metrics.recordAct(s, System.nanoTime() - start);
+        }
+        else {
+            actor.act(newborns);
+        }
+    }
+    
+    /**
+     * Remove dead actors from the list of actors.
+     * The live actors are moved down over the dead ones in a single
+     * pass, keeping their order, and the tail is cut off once, so this
+     * takes linear time however many actors died. The dead go to the
+     * ocean's pools, if it keeps any; they are in no other list by now.
+     */
+    private void removeDead()
+    {
+        int alive = 0;
+        for(int i = 0; i < actors.size(); i++) {
+            Actor actor = actors.get(i);
+            if(actor.isActive()) {
+                actors.set(alive, actor);
+                alive++;
+            }
+            else {
+                ocean.recycle(actor);
+            }
+        }
+        actors.subList(alive, actors.size()).clear();
+    }
+    
     /**
      * Determine whether the simulation is still viable.
      * I.e., should it continue to run.
@@ -151,9 +715,14 @@ public class Simulator
      */
     public boolean isViable()
     {
-        return (actors.stream().map((a) -> a.getClass())
-            .collect(Collectors.toSet())).size() 
-            > 1;
+        OceanView view = getOceanView();
+        int alive = 0;
+        for(int species = 1; species < Species.COUNT; species++) {
+            if(view.getCount(species) > 0) {
+                alive++;
+            }
+        }
+        return alive > 1;
     }
     
     /**
@@ -161,36 +730,50 @@ public class Simulator
      */
     public void reset()
     {
-        sane();
-        
+        SimulationEvents.Reset event = new SimulationEvents.Reset();
+        event.begin();
         step = 0;
+        Randomizer.use(Randomizer.derive(seed, step));
         actors.clear();
-        ocean.clear();
+        if(cells != null) {
+            cells.clear();
+        }
+        else {
+            ocean.clear();
+        }
         populate();
         
         // Update the view of the simulation to the new state.
-        view.update(this);
+        updateView();
+        
+        checkInvariants();
         
-        sane();
+        event.end();
+        if(event.shouldCommit()) {
+            event.set(step, getOceanView());
+            event.commit();
+        }
     }
     
     /**
-     * Randomly populate the ocean with actors.
+     * Randomly populate the ocean with actors, each row drawing from its
+     * own stream derived from the seed, so the population is the same
+     * with or without threads. With threads, the rows are shared among
+     * them.
+     * Without a factory the ocean stays empty.
      * Pre-condition: the ocean is empty
      */
     private void populate()
     {
-        sane(); 
-        for(int row = 0; row < ocean.getDepth(); row++) {
-            for(int col = 0; col < ocean.getWidth(); col++) {
-                Location location = new Location(row, col);
-                Actor actor = factory.optionallyCreateActor(ocean, location);
-                if(actor != null) {
-                    actors.add(actor);  
-                }
-                // else leave the location empty.
-            }
+        if(factory == null) {
+            return;
+        }
+        long key = Randomizer.derive(seed, 0);
+        if(cells != null) {
+            factory.populate(cells, pool, key);
+        }
+        else {
+            factory.populate(ocean, pool, key, actors);
         }
-        sane();
    }
 }
\ No newline at end of file
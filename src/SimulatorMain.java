@@ -30,13 +30,25 @@ public class SimulatorMain
      * @param width Width of the ocean. Must be greater than zero.
      */
     public SimulatorMain(Factory factory, int depth, int width)
+    {
+        this(factory, depth, width, false);
+    }
+    
+    /**
+     * Create a simulation field with the given size.
+     * @param factory A factory for creating the actors.
+     * @param depth Depth of the ocean. Must be greater than zero.
+     * @param width Width of the ocean. Must be greater than zero.
+     * @param compact Whether to run on the compact engine.
+     */
+    public SimulatorMain(Factory factory, int depth, int width, boolean compact)
     {
         assert (width > 0 && depth > 0) : 
             "The dimensions are not greater than zero.";
 
         view = new SimulatorView(depth, width);
         factory.setupColors(view);
-        simulator = new Simulator(factory, view, depth, width);
+        simulator = new Simulator(factory, view, depth, width, compact);
     }
     
     /**
@@ -1,4 +1,29 @@
 import static org.junit.Assert.*;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -6,9 +31,12 @@ import org.junit.Test;
 /**
  * The test class SimulatorTest.
  * 
- * None of the tests contains any assertion. Hence none can finish with a failed assertion.
- * However, they run repeatable executions of the simulations. Thus the numerous assertion
- * statements in program for pre- and post-conditions and invariants are being exercised.
+ * The tests run repeatable executions of the simulations, so the numerous assertion
+ * statements in the program for pre- and post-conditions and invariants are exercised.
+ * Besides, they check that runs are reproducible: that threads, seeds, check levels,
+ * pooling, checkpoints, step logs and both engines give the same oceans where they
+ * should, and that species tables, recorders, images, metrics and flight recorder
+ * events behave as documented.
  *
  * @author  Olaf Chitil
  * @version 2016/02/25
@@ -60,7 +88,611 @@ public class SimulatorTest
         simulato1.simulateOneStep();
         simulato1.simulateOneStep();
     }
-}
 
+    @Test
+    public void parallelRunsAreReproducible()
+    {
+        Simulator one = new Simulator(new MyFactory(), new MockView(), 70, 90);
+        one.setParallelism(1);
+        Simulator four = new Simulator(new MyFactory(), new MockView(), 70, 90);
+        four.setParallelism(4);
+        for(int step = 0; step < 20; step++) {
+            one.simulateOneStep();
+            four.simulateOneStep();
+        }
+        assertSameOcean(one.getOceanView(), four.getOceanView());
+    }
+
+    @Test
+    public void seedsGiveOwnStreams()
+    {
+        Simulator first = new Simulator(new MyFactory(), new MockView(), 40, 40, true);
+        Simulator second = new Simulator(new MyFactory(), new MockView(), 40, 40, true);
+        second.setSeed(42);
+        first.simulateOneStep();
+        second.simulateOneStep();
+        second.setSeed(first.getSeed());
+        second.simulateOneStep();
+        assertSameOcean(first.getOceanView(), second.getOceanView());
+    }
+
+    @Test
+    public void checkLevelsGiveSameRun()
+    {
+        Simulator full = new Simulator(new MyFactory(), new MockView(), 30, 30);
+        full.setCheckLevel(CheckLevel.FULL);
+        for(int step = 0; step < 10; step++) {
+            full.simulateOneStep();
+        }
+        for(CheckLevel level : CheckLevel.values()) {
+            Simulator simulator = new Simulator(new MyFactory(), new MockView(), 30, 30);
+            simulator.setCheckLevel(level);
+            simulator.setCheckInterval(3);
+            for(int step = 0; step < 10; step++) {
+                simulator.simulateOneStep();
+            }
+            simulator.sane();
+            assertSameOcean(full.getOceanView(), simulator.getOceanView());
+        }
+        // Each simulation keeps the self-checking of its own level.
+        Simulator unchecked = new Simulator(new MyFactory(), new MockView(), 30, 30);
+        unchecked.setCheckLevel(CheckLevel.OFF);
+        assertTrue(((Ocean) full.getOceanView()).isSelfChecking());
+        assertFalse(((Ocean) unchecked.getOceanView()).isSelfChecking());
+    }
+
+    @Test
+    public void sweepsAreIndependentOfThreads() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty("size", "20x30");
+        properties.setProperty("seed", "1..3");
+        properties.setProperty("fish.breedingProbability", "0.1, 0.3");
+        properties.setProperty("steps", "15");
+        properties.setProperty("output", "steps");
+        Sweep sweep = new Sweep(properties);
+        assertEquals(6, sweep.getRunCount());
+
+        StringWriter one = new StringWriter();
+        new SweepRunner(sweep, 1).run(one);
+        StringWriter three = new StringWriter();
+        new SweepRunner(sweep, 3).run(three);
+        String[] expected = one.toString().split("\n");
+        String[] actual = three.toString().split("\n");
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void checkpointsRestoreExactly() throws Exception
+    {
+        // Besides the usual rules, fish that hunt sharks and get hungry.
+        SpeciesTable hungryFish = new SpeciesTable();
+        hungryFish.setEats(Species.FISH, Species.SHARK, true);
+        hungryFish.setFoodValue(Species.FISH, 20);
+        Path file = Files.createTempFile("ocean", ".ckpt");
+        try {
+            for(SpeciesTable table : new SpeciesTable[] { new SpeciesTable(), hungryFish }) {
+                for(boolean compact : new boolean[] { false, true }) {
+                    Simulator original = new Simulator(new MyFactory(), new MockView(), 40, 50, compact);
+                    original.setSpeciesTable(table);
+                    original.setSeed(7);
+                    for(int step = 0; step < 10; step++) {
+                        original.simulateOneStep();
+                    }
+                    Checkpoint.capture(original).write(file);
+                    Simulator restored = Checkpoint.read(file).createSimulator(new MyFactory(),
+                                                                               new MockView());
+                    assertEquals(original.getStep(), restored.getStep());
+                    assertSameOcean(original.getOceanView(), restored.getOceanView());
+                    for(int step = 0; step < 10; step++) {
+                        original.simulateOneStep();
+                        restored.simulateOneStep();
+                    }
+                    assertSameOcean(original.getOceanView(), restored.getOceanView());
+                }
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void recorderWritesEveryStep() throws Exception
+    {
+        Path file = Files.createTempFile("population", ".csv");
+        try {
+            PopulationRecorder recorder = new PopulationRecorder(file);
+            Simulator simulator = new Simulator(new MyFactory(), new MultiView(new MockView(), recorder),
+                                                30, 30);
+            for(int step = 0; step < 20; step++) {
+                simulator.simulateOneStep();
+            }
+            recorder.close();
+            List<String> rows = Files.readAllLines(file);
+            assertEquals("step,nanos,Fish,Shark,KillerWhale,Fisherman", rows.get(0));
+            assertEquals(22, rows.size());
+            String[] last = rows.get(21).split(",");
+            assertEquals("20", last[0]);
+            for(int species = 1; species < Species.COUNT; species++) {
+                assertEquals(simulator.getOceanView().getCount(species),
+                             Integer.parseInt(last[1 + species]));
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void stepLogReplaysEveryStep() throws Exception
+    {
+        Path file = Files.createTempFile("steps", ".log");
+        try {
+            StepLog log = new StepLog(file, 30, 40, 7);
+            Simulator simulator = new Simulator(new MyFactory(), log, 30, 40);
+            List<OceanView> steps = new ArrayList<OceanView>();
+            for(int step = 0; step <= 30; step++) {
+                if(step > 0) {
+                    simulator.simulateOneStep();
+                }
+                byte[] cells = new byte[30 * 40];
+                for(int cell = 0; cell < cells.length; cell++) {
+                    cells[cell] = (byte) simulator.getOceanView().getSpeciesAt(cell);
+                }
+                steps.add(new ReplayOcean(30, 40, cells));
+            }
+            log.close();
+
+            try(StepLogReader reader = new StepLogReader(file)) {
+                assertEquals(0, reader.getFirstStep());
+                assertEquals(30, reader.getLastStep());
+                for(int step : new int[] { 30, 3, 14, 15, 16, 0, 29 }) {
+                    assertSameOcean(steps.get(step), reader.read(step));
+                }
+                for(int step = 0; step <= 30; step++) {
+                    OceanView ocean = reader.read(step);
+                    assertSameOcean(steps.get(step), ocean);
+                    for(int species = 1; species < Species.COUNT; species++) {
+                        assertEquals(steps.get(step).getCount(species), ocean.getCount(species));
+                    }
+                }
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void oceanImageRendersOnlyChangedCells()
+    {
+        int[] palette = { 0xFFFFFF, 0x00FF00, 0x0000FF, 0xFF0000, 0x000000 };
+        byte[] species = new byte[4 * 5];
+        OceanImage image = new OceanImage(4, 5);
+        assertEquals(new Rectangle(0, 0, 5, 4),
+                     image.render(new ReplayOcean(4, 5, species.clone()), palette));
+        assertNull(image.render(new ReplayOcean(4, 5, species.clone()), palette));
+
+        species[1 * 5 + 3] = Species.SHARK;
+        species[2 * 5 + 1] = Species.FISH;
+        assertEquals(new Rectangle(1, 1, 3, 2),
+                     image.render(new ReplayOcean(4, 5, species.clone()), palette));
+        assertEquals(0x0000FF, image.getImage().getRGB(3, 1) & 0xFFFFFF);
+        assertEquals(0x00FF00, image.getImage().getRGB(1, 2) & 0xFFFFFF);
+        assertEquals(0xFFFFFF, image.getImage().getRGB(2, 2) & 0xFFFFFF);
+    }
+
+    @Test
+    public void frameExporterWritesFrames() throws Exception
+    {
+        Path directory = Files.createTempDirectory("frames");
+        Path gif = directory.resolve("run.gif");
+        try {
+            FrameExporter png = new FrameExporter(directory, FrameExporter.Format.PNG, 5, 2, 2);
+            FrameExporter animated = new FrameExporter(gif, FrameExporter.Format.GIF, 5, 1, 1);
+            MyFactory factory = new MyFactory();
+            factory.setupColors(png);
+            factory.setupColors(animated);
+            Simulator simulator = new Simulator(factory, new MultiView(png, animated), 20, 30);
+            for(int step = 0; step < 20; step++) {
+                simulator.simulateOneStep();
+            }
+            png.close();
+            animated.close();
 
+            BufferedImage last = ImageIO.read(directory.resolve("frame-000020.png").toFile());
+            assertEquals(60, last.getWidth());
+            assertEquals(40, last.getHeight());
+            Map<Class, Color> colors = new HashMap<Class, Color>();
+            factory.setupColors(colors::put);
+            int[] palette = OceanImage.palette(colors);
+            OceanView ocean = simulator.getOceanView();
+            for(int cell = 0; cell < 20 * 30; cell++) {
+                int rgb = last.getRGB(2 * (cell % 30) + 1, 2 * (cell / 30) + 1);
+                assertEquals(palette[ocean.getSpeciesAt(cell)] & 0xFFFFFF, rgb & 0xFFFFFF);
+            }
+            ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+            try(ImageInputStream in = ImageIO.createImageInputStream(gif.toFile())) {
+                reader.setInput(in);
+                assertEquals(5, reader.getNumImages(true));
+            }
+        }
+        finally {
+            try(Stream<Path> files = Files.list(directory)) {
+                for(Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void chunkedOceanStepsAsTiledOcean() throws Exception
+    {
+        Simulator tiled = new Simulator(new MyFactory(), new MockView(), 70, 90, true);
+        tiled.setParallelism(1);
+        Simulator chunked = new Simulator(new MyFactory(), new MockView(),
+                                          new ArrayOcean(70, 90, true));
+        Simulator parallel = new Simulator(new MyFactory(), new MockView(),
+                                           new ArrayOcean(70, 90, true));
+        parallel.setParallelism(3);
+        for(int step = 0; step < 20; step++) {
+            tiled.simulateOneStep();
+            chunked.simulateOneStep();
+            parallel.simulateOneStep();
+        }
+        assertSameOcean(tiled.getOceanView(), chunked.getOceanView());
+        assertSameOcean(tiled.getOceanView(), parallel.getOceanView());
+
+        Path file = Files.createTempFile("chunked", ".ckpt");
+        try {
+            Checkpoint.capture(chunked).write(file);
+            Simulator restored = Checkpoint.read(file).createSimulator(new MyFactory(),
+                                                                       new MockView());
+            assertTrue(restored.getCells().isChunked());
+            for(int step = 0; step < 5; step++) {
+                chunked.simulateOneStep();
+                restored.simulateOneStep();
+            }
+            assertSameOcean(chunked.getOceanView(), restored.getOceanView());
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void speciesTableDrivesBothEngines() throws Exception
+    {
+        Path file = Files.createTempFile("species", ".properties");
+        try {
+            Files.write(file, Arrays.asList("fish.maxAge = 3", "fish.breedingProbability = 0",
+                                            "shark.foodValue = 0", "whale.prey = fish, shark"));
+            SpeciesTable table = SpeciesTable.load(file);
+            assertEquals(3, table.getMaxAge(Species.FISH));
+            assertEquals(0, table.getFoodValue(Species.SHARK));
+            assertTrue(table.eats(Species.WHALE, Species.FISH));
+            assertTrue(table.eats(Species.WHALE, Species.SHARK));
+            assertFalse(table.eats(Species.SHARK, Species.WHALE));
+
+            for(boolean compact : new boolean[] { false, true }) {
+                Simulator simulator = new Simulator(new MyFactory(), new MockView(), 40, 50,
+                                                    compact);
+                simulator.setSpeciesTable(table);
+                simulator.reset();
+                for(int step = 0; step < 4; step++) {
+                    simulator.simulateOneStep();
+                }
+                // Fish die of age without breeding; sharks never starve.
+                assertEquals(0, simulator.getOceanView().getCount(Species.FISH));
+                assertTrue(simulator.getOceanView().getCount(Species.SHARK) > 0);
+
+                Simulator restored = Checkpoint.capture(simulator)
+                    .createSimulator(new MyFactory(), new MockView());
+                assertEquals(0, restored.getSpeciesTable().getFoodValue(Species.SHARK));
+                assertTrue(restored.getSpeciesTable().eats(Species.WHALE, Species.FISH));
+                for(int step = 0; step < 5; step++) {
+                    simulator.simulateOneStep();
+                    restored.simulateOneStep();
+                }
+                assertSameOcean(simulator.getOceanView(), restored.getOceanView());
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
 
+    @Test
+    public void anySpeciesHuntsOnBothEngines()
+    {
+        SpeciesTable table = new SpeciesTable();
+        table.setEats(Species.FISH, Species.SHARK, true);
+        table.setFoodValue(Species.FISH, 4);
+        Simulator actors = new Simulator(new MyFactory(), new MockView(), 40, 50);
+        Simulator compact = new Simulator(new MyFactory(), new MockView(), 40, 50, true);
+        for(Simulator simulator : new Simulator[] { actors, compact }) {
+            simulator.setSpeciesTable(table);
+            simulator.reset();
+            simulator.simulateOneStep();
+        }
+        // Both engines draw the first step from the same streams.
+        assertSameOcean(actors.getOceanView(), compact.getOceanView());
+    }
+
+    @Test
+    public void speciesTableRejectsValuesOutOfRange() throws Exception
+    {
+        Path file = Files.createTempFile("species", ".properties");
+        try {
+            for(String line : new String[] { "shark.foodValue = 1", "whale.foodValue = 200",
+                                             "fish.maxAge = 40000", "fish.maxLitterSize = 0",
+                                             "shark.breedingProbability = 1.5",
+                                             "fisherman.maxAge = 10",
+                                             "fisherman.breedingAge = 2" }) {
+                Files.write(file, Arrays.asList(line));
+                try {
+                    SpeciesTable.load(file);
+                    fail("Accepted " + line);
+                }
+                catch(IllegalArgumentException e) {
+                    // Rejected, as it should be.
+                }
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+        SpeciesTable table = new SpeciesTable();
+        try {
+            table.setFoodValue(Species.SHARK, 128);
+            fail("Accepted a food value beyond a byte");
+        }
+        catch(IllegalArgumentException e) {
+            assertEquals(Shark.Fish_FOOD_VALUE, table.getFoodValue(Species.SHARK));
+        }
+    }
+
+    @Test
+    public void pooledAnimalsGiveSameRun()
+    {
+        Simulator plain = new Simulator(new MyFactory(), new MockView(), 50, 60);
+        Simulator pooled = new Simulator(new MyFactory(), new MockView(), 50, 60);
+        pooled.setPooling(true);
+        pooled.setCheckLevel(CheckLevel.FULL);
+        Simulator parallel = new Simulator(new MyFactory(), new MockView(), 50, 60);
+        parallel.setPooling(true);
+        parallel.setParallelism(3);
+        Set<Actor> plainSeen = Collections.newSetFromMap(new IdentityHashMap<Actor, Boolean>());
+        Set<Actor> pooledSeen = Collections.newSetFromMap(new IdentityHashMap<Actor, Boolean>());
+        for(int step = 0; step < 30; step++) {
+            plain.simulateOneStep();
+            pooled.simulateOneStep();
+            parallel.simulateOneStep();
+            plainSeen.addAll(plain.getActors());
+            pooledSeen.addAll(pooled.getActors());
+        }
+        assertSameOcean(plain.getOceanView(), pooled.getOceanView());
+        assertTrue(pooledSeen.size() < plainSeen.size());
+
+        Simulator tiled = new Simulator(new MyFactory(), new MockView(), 50, 60);
+        tiled.setParallelism(3);
+        for(int step = 0; step < 30; step++) {
+            tiled.simulateOneStep();
+        }
+        assertSameOcean(tiled.getOceanView(), parallel.getOceanView());
+    }
+
+    @Test
+    public void parallelPopulationIsDeterministic()
+    {
+        Simulator serial = new Simulator(new MyFactory(), new MockView(), 70, 50);
+        Simulator parallel = new Simulator(new MyFactory(), new MockView(), 70, 50);
+        parallel.setParallelism(3);
+        parallel.reset();
+        assertSameOcean(serial.getOceanView(), parallel.getOceanView());
+        List<Actor> serialActors = serial.getActors();
+        List<Actor> parallelActors = parallel.getActors();
+        assertEquals(serialActors.size(), parallelActors.size());
+        for(int i = 0; i < serialActors.size(); i++) {
+            assertEquals(serialActors.get(i).getLocation(), parallelActors.get(i).getLocation());
+        }
+
+        for(boolean chunked : new boolean[] { false, true }) {
+            Simulator compact = new Simulator(new MyFactory(), new MockView(),
+                                              new ArrayOcean(70, 50, chunked));
+            Simulator parallelCompact = new Simulator(new MyFactory(), new MockView(),
+                                                      new ArrayOcean(70, 50, chunked));
+            parallelCompact.setParallelism(3);
+            parallelCompact.reset();
+            // Both engines fill the same cells from the same row streams.
+            assertSameOcean(serial.getOceanView(), compact.getOceanView());
+            assertSameOcean(compact.getOceanView(), parallelCompact.getOceanView());
+        }
+    }
+
+    @Test
+    public void pipelineStepsInPhases()
+    {
+        Simulator first = new Simulator(new MyFactory(), new MockView(), new ArrayOcean(60, 80));
+        first.setPipeline(new StepPipeline());
+        first.setCheckLevel(CheckLevel.FULL);
+        Simulator second = new Simulator(new MyFactory(), new MockView(), new ArrayOcean(60, 80));
+        second.setPipeline(new StepPipeline());
+        second.setParallelism(2);
+        StepPipeline.Phase[] reversed = {
+            StepPipeline.Phase.MOVEMENT, StepPipeline.Phase.BIRTHS,
+            StepPipeline.Phase.PREDATION, StepPipeline.Phase.CULL
+        };
+        Simulator reordered = new Simulator(new MyFactory(), new MockView(), new ArrayOcean(60, 80));
+        reordered.setPipeline(new StepPipeline(reversed));
+        reordered.setCheckLevel(CheckLevel.FULL);
+        for(int step = 0; step < 20; step++) {
+            first.simulateOneStep();
+            second.simulateOneStep();
+            reordered.simulateOneStep();
+        }
+        assertSameOcean(first.getOceanView(), second.getOceanView());
+        assertNotEquals(first.getOceanView().getCount(Species.FISH),
+                        reordered.getOceanView().getCount(Species.FISH));
+        StepPipeline pipeline = first.getPipeline();
+        assertEquals(20, pipeline.getSteps());
+        for(StepPipeline.Phase phase : StepPipeline.Phase.values()) {
+            assertTrue(pipeline.getTime(phase) > 0);
+        }
+        assertArrayEquals(reversed, reordered.getPipeline().getOrder());
+    }
+
+    @Test
+    public void metricsBalanceBirthsAndDeaths() throws Exception
+    {
+        Simulator actors = new Simulator(new MyFactory(), new MockView(), 50, 60);
+        Simulator compact = new Simulator(new MyFactory(), new MockView(), new ArrayOcean(50, 60));
+        compact.setParallelism(2);
+        for(Simulator simulator : new Simulator[] { actors, compact }) {
+            SimulationMetrics metrics = new SimulationMetrics(1);
+            simulator.setMetrics(metrics);
+            int before = creatures(simulator);
+            for(int step = 0; step < 30; step++) {
+                simulator.simulateOneStep();
+            }
+            SimulationMetrics.Snapshot snapshot = metrics.snapshot();
+            assertEquals(30, snapshot.getSteps());
+            assertEquals(creatures(simulator), snapshot.getActorCount());
+            long deaths = 0;
+            for(DeathCause cause : DeathCause.values()) {
+                deaths += snapshot.getDeaths(cause);
+            }
+            assertTrue(snapshot.getDeaths(DeathCause.PREDATION) > 0);
+            assertEquals(creatures(simulator) - before, snapshot.getBirths() - deaths);
+            assertTrue(snapshot.getActCost(Species.FISH) > 0);
+            assertTrue(snapshot.getStepLatency(0.5) >= snapshot.getMeanStepLatency() / 64);
+            assertTrue(snapshot.getActTime() + snapshot.getViewUpdateTime() > 0);
+        }
+
+        SimulationMetrics metrics = actors.getMetrics();
+        ObjectName name = metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(30L, server.getAttribute(name, "Steps"));
+            assertEquals(metrics.getActorCount(), server.getAttribute(name, "ActorCount"));
+        }
+        finally {
+            metrics.unregister();
+        }
+    }
+
+    @Test
+    public void flightRecorderSeesStepsAndSampledEvents() throws Exception
+    {
+        Path file = Files.createTempFile("ocean", ".jfr");
+        try {
+            Simulator simulator;
+            try(Recording recording = new Recording()) {
+                recording.enable("ocean.Step");
+                recording.enable("ocean.Reset");
+                recording.enable("ocean.ViewUpdate");
+                recording.enable("ocean.Predation");
+                SimulationEvents.setSampleEvery(1);
+                recording.start();
+                simulator = new Simulator(new MyFactory(), new MockView(), 50, 60);
+                for(int step = 0; step < 10; step++) {
+                    simulator.simulateOneStep();
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+            finally {
+                SimulationEvents.setSampleEvery(100);
+            }
+            Map<String, Integer> counts = new HashMap<String, Integer>();
+            RecordedEvent last = null;
+            for(RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                String name = event.getEventType().getName();
+                counts.merge(name, 1, Integer::sum);
+                if(name.equals("ocean.Step")
+                   && (last == null || event.getInt("step") > last.getInt("step"))) {
+                    last = event;
+                }
+            }
+            assertEquals(Integer.valueOf(10), counts.get("ocean.Step"));
+            assertEquals(Integer.valueOf(1), counts.get("ocean.Reset"));
+            assertEquals(Integer.valueOf(11), counts.get("ocean.ViewUpdate"));
+            assertTrue(counts.get("ocean.Predation") > 0);
+            assertNull(counts.get("ocean.Birth"));
+            assertEquals(10, last.getInt("step"));
+            assertEquals(simulator.getOceanView().getCount(Species.SHARK), last.getInt("sharks"));
+            assertEquals(creatures(simulator), last.getInt("creatures"));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void stripsStepAsOneOcean() throws Exception
+    {
+        Simulator chunked = new Simulator(new MyFactory(), new MockView(),
+                                          new ArrayOcean(130, 60, true));
+        // Strips of one and two rows of chunks, and a shorter last one.
+        try(StripCoordinator strips = new StripCoordinator(Checkpoint.capture(chunked), 3)) {
+            for(int step = 0; step < 15; step++) {
+                chunked.simulateOneStep();
+                strips.simulateOneStep();
+                assertEquals(chunked.getStep(), strips.getStep());
+                for(int s = 1; s < Species.COUNT; s++) {
+                    assertEquals(chunked.getOceanView().getCount(s), strips.getCount(s));
+                }
+            }
+            assertSameOcean(chunked.getOceanView(), strips.snapshot());
+        }
+    }
+
+    @Test
+    public void chunkedOceanReleasesEmptyChunks()
+    {
+        ArrayOcean cells = new ArrayOcean(4000, 4000, true);
+        Simulator simulator = new Simulator(null, new MockView(), cells);
+        assertEquals(0, cells.getChunkCount());
+        // Sharks without fish starve, far from the edges of their chunk.
+        int middle = 2000 * 4000 + 2000 + ArrayOcean.CHUNK_SIZE / 2;
+        cells.spawn(Species.SHARK, middle, false);
+        cells.spawn(Species.SHARK, middle + 1, false);
+        assertEquals(1, cells.getChunkCount());
+        for(int step = 0; step < 50 && cells.getCount(Species.SHARK) > 0; step++) {
+            simulator.simulateOneStep();
+            assertTrue(cells.getChunkCount() <= 4);
+        }
+        assertEquals(0, cells.getCount(Species.SHARK));
+        assertEquals(0, cells.getChunkCount());
+    }
+
+    /**
+     * Assert that two oceans hold the same species in every cell.
+     */
+    private void assertSameOcean(OceanView expected, OceanView actual)
+    {
+        assertEquals(expected.getDepth(), actual.getDepth());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        for(int cell = 0; cell < expected.getDepth() * expected.getWidth(); cell++) {
+            assertEquals("Species in cell " + cell,
+                         expected.getSpeciesAt(cell), actual.getSpeciesAt(cell));
+        }
+    }
+
+    /**
+     * @return The number of creatures in the ocean of a simulator.
+     */
+    private static int creatures(Simulator simulator)
+    {
+        int creatures = 0;
+        for(int s = 1; s < Species.COUNT; s++) {
+            creatures += simulator.getOceanView().getCount(s);
+        }
+        return creatures;
+    }
+}
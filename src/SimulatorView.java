@@ -3,6 +3,8 @@ import java.awt.event.*;
 import javax.swing.*;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A graphical view of the simulation grid.
@@ -10,18 +12,16 @@ import java.util.Map;
  * representing its contents. It uses a default background color.
  * Colors for each type of species can be defined using the
  * setColor method.
+ * Updates only take a copy of the ocean; the copy is drawn later on the
+ * event dispatch thread. When the simulation runs ahead of the drawing,
+ * steps are skipped and the latest copy is drawn, so the display never
+ * holds the simulation back.
  * 
  * @author David J. Barnes, Michael Kolling, Olaf Chitil and Gursimran Khalsa
  * @version 07/03/2017
  */
-public class SimulatorView extends JFrame implements View
+public class SimulatorView extends JFrame implements View, ColoredView
 {
-    // Colors used for empty locations.
-    private static final Color EMPTY_COLOR = Color.white;
-
-    // Color used for objects that have no defined color.
-    private static final Color UNKNOWN_COLOR = Color.gray;
-
     private final String STEP_PREFIX = "Step: ";
     private final String POPULATION_PREFIX = "Population: ";
     private JLabel stepLabel, population;
@@ -31,6 +31,14 @@ public class SimulatorView extends JFrame implements View
     private Map<Class, Color> colors;
     // A statistics object computing and storing simulation information
     private OceanStats stats;
+    // The latest copy not yet drawn, if any.
+    private final AtomicReference<Frame> latest;
+    // A drawn copy handed back for reuse, if any.
+    private final AtomicReference<Frame> drawn;
+    // Whether drawing the latest copy is scheduled.
+    private final AtomicBoolean drawing;
+    // The copy the next update fills; only used by the simulation.
+    private Frame spare;
 
     /**
      * Create a view of the given width and height.
@@ -41,6 +49,9 @@ public class SimulatorView extends JFrame implements View
     {
         stats = new OceanStats();
         colors = new LinkedHashMap<Class, Color>();
+        latest = new AtomicReference<Frame>();
+        drawn = new AtomicReference<Frame>();
+        drawing = new AtomicBoolean();
 
         setTitle("Fox and Rabbit Simulation");
         stepLabel = new JLabel(STEP_PREFIX, JLabel.CENTER);
@@ -69,26 +80,38 @@ public class SimulatorView extends JFrame implements View
     }
 
     /**
-     * @return The color to be used for a given class of animal.
+     * Show the current status of the simulation.
+     * Copies the ocean and leaves drawing it to the event dispatch thread.
      */
-    private Color getColor(Class animalClass)
+    public void update(Simulator simulator)
     {
-        Color col = colors.get(animalClass);
-        if(col == null) {
-            // no color defined for this class
-            return UNKNOWN_COLOR;
+        OceanView ocean = simulator.getOceanView();
+        if(spare == null || spare.ocean.getDepth() != ocean.getDepth()
+           || spare.ocean.getWidth() != ocean.getWidth()) {
+            spare = new Frame(ocean.getDepth(), ocean.getWidth());
         }
-        else {
-            return col;
+        spare.step = simulator.getStep();
+        spare.ocean.copy(ocean);
+        
+        // Publish the copy; one not drawn yet is dropped and reused.
+        Frame dropped = latest.getAndSet(spare);
+        spare = dropped != null ? dropped : drawn.getAndSet(null);
+        if(drawing.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drawLatest);
         }
     }
-
+    
     /**
-     * Show the current status of the simulation.
+     * Draw the latest copy of the ocean, on the event dispatch thread.
      */
-    public void update(Simulator simulator)
+    private void drawLatest()
     {
-        showStatus(simulator.getStep(), simulator.getOcean());
+        drawing.set(false);
+        Frame frame = latest.getAndSet(null);
+        if(frame != null) {
+            showStatus(frame.step, frame.ocean);
+            drawn.set(frame);
+        }
     }
    
     /**
@@ -105,24 +128,25 @@ public class SimulatorView extends JFrame implements View
         stepLabel.setText(STEP_PREFIX + step);
         stats.reset();
         
-        oceanView.preparePaint();
-
-        for(int row = 0; row < ocean.getDepth(); row++) {
-            for(int col = 0; col < ocean.getWidth(); col++) {
-                Object animal = ocean.getObjectAt(row, col);
-                if(animal != null) {
-                    stats.incrementCount(animal.getClass());
-                    oceanView.drawMark(col, row, getColor(animal.getClass()));
-                }
-                else {
-                    oceanView.drawMark(col, row, EMPTY_COLOR);
-                }
-            }
-        }
-        stats.countFinished();
+        oceanView.drawOcean(ocean);
         
         population.setText(POPULATION_PREFIX + stats.getPopulationDetails(ocean));
-        oceanView.repaint();
+    }
+
+    /**
+     * A copy of the ocean at a step, waiting to be drawn.
+     */
+    private static class Frame
+    {
+        // The ocean at the step.
+        private final ReplayOcean ocean;
+        // The step.
+        private int step;
+        
+        Frame(int depth, int width)
+        {
+            ocean = new ReplayOcean(depth, width, new byte[depth * width]);
+        }
     }
 
     /**
@@ -138,10 +162,7 @@ public class SimulatorView extends JFrame implements View
         private final int GRID_VIEW_SCALING_FACTOR = 6;
 
         private int gridWidth, gridHeight;
-        private int xScale, yScale;
-        Dimension size;
-        private Graphics g;
-        private Image oceanImage;
+        private OceanImage oceanImage;
 
         /**
          * Create a new oceanView component.
@@ -150,7 +171,6 @@ public class SimulatorView extends JFrame implements View
         {
             gridHeight = height;
             gridWidth = width;
-            size = new Dimension(0, 0);
         }
 
         /**
@@ -163,51 +183,35 @@ public class SimulatorView extends JFrame implements View
         }
 
         /**
-         * Prepare for a new round of painting. Since the component
-         * may be resized, compute the scaling factor again.
+         * Paint every grid location of an ocean in its color, into an
+         * image of one pixel per location, and repaint the part of the
+         * screen where locations changed.
          */
-        public void preparePaint()
+        public void drawOcean(OceanView ocean)
         {
-            if(! size.equals(getSize())) {  // if the size has changed...
-                size = getSize();
-                oceanImage = oceanView.createImage(size.width, size.height);
-                g = oceanImage.getGraphics();
-
-                xScale = size.width / gridWidth;
-                if(xScale < 1) {
-                    xScale = GRID_VIEW_SCALING_FACTOR;
-                }
-                yScale = size.height / gridHeight;
-                if(yScale < 1) {
-                    yScale = GRID_VIEW_SCALING_FACTOR;
-                }
+            if(oceanImage == null || oceanImage.getDepth() != ocean.getDepth()
+               || oceanImage.getWidth() != ocean.getWidth()) {
+                oceanImage = new OceanImage(ocean.getDepth(), ocean.getWidth());
+            }
+            Rectangle changed = oceanImage.render(ocean, OceanImage.palette(colors));
+            if(changed != null) {
+                Dimension size = getSize();
+                Rectangle area = oceanImage.toScreen(changed, size.width, size.height);
+                // Take in the pixels rounded off at the edges.
+                repaint(area.x - 1, area.y - 1, area.width + 2, area.height + 2);
             }
-        }
-        
-        /**
-         * Paint on grid location on this ocean in a given color.
-         */
-        public void drawMark(int x, int y, Color color)
-        {
-            g.setColor(color);
-            g.fillRect(x * xScale, y * yScale, xScale-1, yScale-1);
         }
 
         /**
          * The ocean view component needs to be redisplayed. Copy the
-         * internal image to screen.
+         * internal image to screen, scaled to the component.
          */
         public void paintComponent(Graphics g)
         {
+            super.paintComponent(g);
             if(oceanImage != null) {
                 Dimension currentSize = getSize();
-                if(size.equals(currentSize)) {
-                    g.drawImage(oceanImage, 0, 0, null);
-                }
-                else {
-                    // Rescale the previous image.
-                    g.drawImage(oceanImage, 0, 0, currentSize.width, currentSize.height, null);
-                }
+                oceanImage.draw(g, currentSize.width, currentSize.height);
             }
         }
     }
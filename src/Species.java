@@ -0,0 +1,82 @@
+/**
+ * Small integer ids for the kinds of actor in the simulation.
+ * The compact engine stores one of these ids per cell instead of an
+ * actor object, and views use them to look up colours and counts.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class Species
+{
+    // The id of an empty cell.
+    public static final int EMPTY = 0;
+    public static final int FISH = 1;
+    public static final int SHARK = 2;
+    public static final int WHALE = 3;
+    public static final int FISHERMAN = 4;
+    // The number of ids, including EMPTY.
+    public static final int COUNT = 5;
+
+    // The actor class belonging to each id.
+    private static final Class[] CLASSES =
+        { null, Fish.class, Shark.class, KillerWhale.class, Fisherman.class };
+    // The name of each id in configuration files.
+    private static final String[] NAMES = { null, "fish", "shark", "whale", "fisherman" };
+
+    /**
+     * Return the id of the given actor's species.
+     * @param actor The actor, or null.
+     * @return The species id, EMPTY if the actor is null.
+     */
+    public static int of(Actor actor)
+    {
+        if(actor == null) {
+            return EMPTY;
+        }
+        return idOf(actor.getClass());
+    }
+
+    /**
+     * Return the id belonging to an actor class.
+     * @param actorClass One of the actor classes of the simulation.
+     * @return The species id of the class.
+     */
+    public static int idOf(Class actorClass)
+    {
+        for(int id = 1; id < COUNT; id++) {
+            if(CLASSES[id] == actorClass) {
+                return id;
+            }
+        }
+        assert false : "Unknown actor class " + actorClass;
+        return EMPTY;
+    }
+
+    /**
+     * Return the id of a species by its name in configuration files.
+     * @param name The name, such as fish or whale.
+     * @return The species id.
+     * @throws IllegalArgumentException If there is no such species.
+     */
+    public static int named(String name)
+    {
+        for(int id = 1; id < COUNT; id++) {
+            if(NAMES[id].equals(name)) {
+                return id;
+            }
+        }
+        throw new IllegalArgumentException("Unknown species " + name);
+    }
+
+    /**
+     * Return the actor class belonging to a species id.
+     * @param species A species id.
+     * @return The actor class, or null for EMPTY.
+     */
+    public static Class classOf(int species)
+    {
+        assert 0 <= species && species < COUNT : "Unknown species " + species;
+
+        return CLASSES[species];
+    }
+}
@@ -0,0 +1,262 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The rules each species lives by: the age to which it can live, its
+ * food value, which species it eats, and its breeding constants. Both
+ * engines act on these values rather than on constants of the actor
+ * classes, and each ocean has its own table, so simulations can differ
+ * in their species without any change to code.
+ *
+ * The food value is the food level a creature is born with and goes back
+ * to after eating; a species with food value 0 never gets hungry. Which
+ * species eat which is a matrix of predator against prey, kept as a bit
+ * mask of prey species per predator; any animal, fish included, hunts the
+ * prey it is given. Fishermen do not age or breed; their
+ * food value is the catch level after a catch.
+ *
+ * A table can be read from a properties file, with keys such as
+ * shark.maxAge, shark.foodValue, shark.prey (a comma-separated list of
+ * species, possibly empty), shark.breedingAge, shark.breedingProbability
+ * and shark.maxLitterSize, for the species fish, shark and whale, and
+ * fisherman.foodValue and fisherman.prey for fishermen. A constant that
+ * is not given keeps its usual value.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class SpeciesTable
+{
+    // Per species, the age to which it can live.
+    private final int[] maxAge;
+    // Per species, the food level after eating, 0 if it never gets hungry.
+    private final int[] foodValue;
+    // Per species, a bit for each species it eats.
+    private final int[] prey;
+    // The breeding constants.
+    private final Breeding breeding;
+
+    /**
+     * Create a table with the rules of the species classes.
+     */
+    public SpeciesTable()
+    {
+        maxAge = new int[Species.COUNT];
+        foodValue = new int[Species.COUNT];
+        prey = new int[Species.COUNT];
+        breeding = new Breeding();
+        maxAge[Species.FISH] = Fish.MAX_AGE;
+        maxAge[Species.SHARK] = Shark.MAX_AGE;
+        foodValue[Species.SHARK] = Shark.Fish_FOOD_VALUE;
+        setEats(Species.SHARK, Species.FISH, true);
+        maxAge[Species.WHALE] = KillerWhale.MAX_AGE;
+        foodValue[Species.WHALE] = KillerWhale.Shark_FOOD_VALUE;
+        setEats(Species.WHALE, Species.SHARK, true);
+        foodValue[Species.FISHERMAN] = Fisherman.Fish_CATCH_VALUE;
+        setEats(Species.FISHERMAN, Species.FISH, true);
+    }
+
+    /**
+     * Create a copy of a table with other breeding constants.
+     * @param other The table to copy.
+     * @param breeding The breeding constants; kept, not copied.
+     */
+    public SpeciesTable(SpeciesTable other, Breeding breeding)
+    {
+        assert breeding != null : "The breeding constants are null";
+
+        maxAge = other.maxAge.clone();
+        foodValue = other.foodValue.clone();
+        prey = other.prey.clone();
+        this.breeding = breeding;
+    }
+
+    /**
+     * Read a table from a properties file.
+     * @param file The file.
+     * @return The table.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If a key or value is malformed,
+     *                                  a value is out of range, or a
+     *                                  constant does not apply to fishermen.
+     */
+    public static SpeciesTable load(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try(Reader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+        }
+        SpeciesTable table = new SpeciesTable();
+        for(String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            int dot = key.indexOf('.');
+            if(dot < 0) {
+                throw new IllegalArgumentException("Unknown key " + key);
+            }
+            int species = Species.named(key.substring(0, dot));
+            String constant = key.substring(dot + 1);
+            try {
+                table.set(species, constant, value);
+            }
+            catch(NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed value of " + key + ": " + value);
+            }
+            catch(IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + key + ": " + e.getMessage());
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Set one constant of a species from the text of its value.
+     * @throws IllegalArgumentException If the constant is unknown or does
+     *                                  not apply to the species, or the
+     *                                  value is malformed or out of range.
+     */
+    private void set(int species, String constant, String value)
+    {
+        if(species == Species.FISHERMAN && (constant.equals("maxAge")
+           || constant.startsWith("breeding") || constant.equals("maxLitterSize"))) {
+            // Fishermen neither age nor breed, so nothing would read it.
+            throw new IllegalArgumentException("Fishermen have no " + constant);
+        }
+        switch(constant) {
+            case "maxAge":
+                setMaxAge(species, Integer.parseInt(value));
+                break;
+            case "foodValue":
+                setFoodValue(species, Integer.parseInt(value));
+                break;
+            case "prey":
+                prey[species] = 0;
+                for(String name : value.split(",")) {
+                    if(!name.trim().isEmpty()) {
+                        setEats(species, Species.named(name.trim()), true);
+                    }
+                }
+                break;
+            case "breedingAge":
+                int age = Integer.parseInt(value);
+                if(age < 0) {
+                    throw new IllegalArgumentException("Negative breeding age " + age);
+                }
+                breeding.setBreedingAge(species, age);
+                break;
+            case "breedingProbability":
+                double probability = Double.parseDouble(value);
+                if(!(0 <= probability && probability <= 1)) {
+                    throw new IllegalArgumentException("Breeding probability " + probability
+                                                       + " outside [0, 1]");
+                }
+                breeding.setBreedingProbability(species, probability);
+                break;
+            case "maxLitterSize":
+                int litterSize = Integer.parseInt(value);
+                if(litterSize <= 0) {
+                    throw new IllegalArgumentException("Litter size " + litterSize + " not positive");
+                }
+                breeding.setMaxLitterSize(species, litterSize);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown constant " + constant);
+        }
+    }
+
+    /**
+     * Set the age to which a species can live.
+     * @param species The species.
+     * @param age The age; positive, and at most Short.MAX_VALUE - 1,
+     *            as ages are kept in shorts and may pass it by one.
+     * @throws IllegalArgumentException If the age is out of range.
+     */
+    public void setMaxAge(int species, int age)
+    {
+        if(age <= 0 || age >= Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Maximum age " + age + " outside [1, "
+                                               + (Short.MAX_VALUE - 1) + "]");
+        }
+
+        maxAge[species] = age;
+    }
+
+    /**
+     * Set the food level of a species after eating.
+     * @param species The species.
+     * @param value The food level; 0 if it never gets hungry, otherwise
+     *              2 <= value <= Byte.MAX_VALUE, as a random food level
+     *              below it is drawn and food levels are kept in bytes.
+     * @throws IllegalArgumentException If the value is out of range.
+     */
+    public void setFoodValue(int species, int value)
+    {
+        if(value != 0 && (value < 2 || value > Byte.MAX_VALUE)) {
+            throw new IllegalArgumentException("Food value " + value + " neither 0 nor in [2, "
+                                               + Byte.MAX_VALUE + "]");
+        }
+
+        foodValue[species] = value;
+    }
+
+    /**
+     * Set whether a species eats another.
+     * @param predator The species that would eat.
+     * @param species The species that would be eaten, not EMPTY.
+     * @param eats Whether it is eaten.
+     */
+    public void setEats(int predator, int species, boolean eats)
+    {
+        assert species != Species.EMPTY : "Eating an empty cell";
+
+        if(eats) {
+            prey[predator] |= 1 << species;
+        }
+        else {
+            prey[predator] &= ~(1 << species);
+        }
+    }
+
+    /**
+     * @return The age to which a species can live.
+     */
+    public int getMaxAge(int species)
+    {
+        return maxAge[species];
+    }
+
+    /**
+     * @return The food level of a species after eating, 0 if it never
+     *         gets hungry.
+     */
+    public int getFoodValue(int species)
+    {
+        return foodValue[species];
+    }
+
+    /**
+     * @return Whether a species eats another.
+     */
+    public boolean eats(int predator, int species)
+    {
+        return (prey[predator] & 1 << species) != 0;
+    }
+
+    /**
+     * @return A bit for each species a species eats, 1 << species.
+     */
+    public int getPrey(int predator)
+    {
+        return prey[predator];
+    }
+
+    /**
+     * @return The breeding constants.
+     */
+    public Breeding getBreeding()
+    {
+        return breeding;
+    }
+}
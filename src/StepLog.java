@@ -0,0 +1,221 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A view that logs every step of a run, so that StepLogReader can show
+ * any step again without simulating. Every so many steps it writes a
+ * keyframe holding the species of every cell; in between, a delta holding
+ * only the cells whose species changed: births, deaths and moves.
+ * A delta that would be longer than a keyframe is written as a keyframe.
+ * The log holds one run; when the simulation is reset, it starts over.
+ *
+ * The file starts with a header: magic, version, depth and width, as ints.
+ * Then come the frames, each a type byte (KEYFRAME or DELTA), the step and
+ * the length of the payload, as ints, and the payload. The payload of a
+ * keyframe is one species byte per cell; that of a delta is the number of
+ * changed cells, then per cell the distance from the previous changed cell
+ * and its new species byte. Counts and distances are variable-length:
+ * seven bits per byte, lowest first, the top bit set on all but the last.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class StepLog implements View, Closeable
+{
+    // Marks a step log file, "OSLG".
+    static final int MAGIC = 0x4F534C47;
+    // The version of the format.
+    static final int VERSION = 1;
+    // The length of the header.
+    static final int HEADER_SIZE = 16;
+    // The length of the fixed part of a frame.
+    static final int FRAME_HEADER_SIZE = 9;
+    // The types of frames.
+    static final byte KEYFRAME = 'K';
+    static final byte DELTA = 'D';
+    // The default number of steps between keyframes.
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 100;
+
+    // The file being written.
+    private final FileChannel channel;
+    // The number of steps between keyframes.
+    private final int keyframeInterval;
+    // The number of cells of the ocean.
+    private final int size;
+    // The species of every cell at the last step logged.
+    private final byte[] previous;
+    // The frame being built.
+    private final ByteBuffer frame;
+    // The last step logged, or -1 if none.
+    private int lastStep;
+
+    /**
+     * Create a log of a run on an ocean of the given size, replacing
+     * what the file held.
+     * @param file The file to write.
+     * @param depth The depth of the ocean; positive.
+     * @param width The width of the ocean; positive.
+     * @param keyframeInterval The number of steps between keyframes; positive.
+     * @throws IOException If the file cannot be opened.
+     */
+    public StepLog(Path file, int depth, int width, int keyframeInterval) throws IOException
+    {
+        assert depth > 0 && width > 0 : "The dimensions are not positive";
+        assert keyframeInterval > 0 : "Keyframe interval not positive";
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        this.keyframeInterval = keyframeInterval;
+        size = depth * width;
+        previous = new byte[size];
+        // A delta only gets written while it is shorter than a keyframe,
+        // and a changed cell takes at most six bytes.
+        frame = ByteBuffer.allocateDirect(FRAME_HEADER_SIZE + size + 6);
+        lastStep = -1;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(depth).putInt(width).flip();
+        write(header);
+    }
+
+    /**
+     * Log the current step of the simulation.
+     * @param simulator The simulation.
+     * @throws UncheckedIOException If writing fails.
+     */
+    public void update(Simulator simulator)
+    {
+        OceanView ocean = simulator.getOceanView();
+        assert ocean.getDepth() * ocean.getWidth() == size : "The ocean has another size";
+
+        int step = simulator.getStep();
+        try {
+            if(lastStep >= 0 && step != lastStep + 1) {
+                // A new run: start over.
+                channel.truncate(HEADER_SIZE);
+                channel.position(HEADER_SIZE);
+                lastStep = -1;
+            }
+            if(lastStep < 0 || step % keyframeInterval == 0 || !putDelta(ocean, step)) {
+                putKeyframe(ocean, step);
+            }
+            frame.flip();
+            write(frame);
+            frame.clear();
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastStep = step;
+    }
+
+    /**
+     * Close the log.
+     * @throws IOException If closing fails.
+     */
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Build a keyframe of the ocean.
+     */
+    private void putKeyframe(OceanView ocean, int step)
+    {
+        frame.clear();
+        frame.put(KEYFRAME).putInt(step).putInt(size);
+        ocean.copySpecies(previous);
+        frame.put(previous);
+    }
+
+    /**
+     * Build a delta of the cells changed since the last step logged.
+     * @return false if the delta would be longer than a keyframe.
+     */
+    private boolean putDelta(OceanView ocean, int step)
+    {
+        frame.clear();
+        frame.put(DELTA).putInt(step).putInt(0);
+        // Leave room for the count, written once known.
+        int countAt = frame.position();
+        frame.position(countAt + 5);
+        int changes = 0;
+        int last = -1;
+        for(int cell = 0; cell < size; cell++) {
+            byte species = (byte) ocean.getSpeciesAt(cell);
+            if(species != previous[cell]) {
+                if(frame.position() > FRAME_HEADER_SIZE + size) {
+                    return false;
+                }
+                putVarint(frame, cell - last);
+                frame.put(species);
+                previous[cell] = species;
+                last = cell;
+                changes++;
+            }
+        }
+        int end = frame.position();
+        frame.position(countAt);
+        putFixedVarint(frame, changes);
+        frame.putInt(FRAME_HEADER_SIZE - 4, end - FRAME_HEADER_SIZE);
+        frame.position(end);
+        return true;
+    }
+
+    /**
+     * Write a buffer to the file.
+     */
+    private void write(ByteBuffer buffer) throws IOException
+    {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Append a number that is not negative in variable-length form.
+     */
+    static void putVarint(ByteBuffer buffer, int value)
+    {
+        while(value >= 0x80) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Append a number that is not negative in variable-length form,
+     * always taking five bytes.
+     */
+    private static void putFixedVarint(ByteBuffer buffer, int value)
+    {
+        for(int i = 0; i < 4; i++) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Read a number in variable-length form.
+     */
+    static int getVarint(ByteBuffer buffer)
+    {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while(b < 0);
+        return value;
+    }
+}
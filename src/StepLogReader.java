@@ -0,0 +1,202 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a log written by StepLog and rebuilds the ocean of any step.
+ * Opening the log reads only the frame headers, to find where each step
+ * is. Reading a step starts from the keyframe at or before it and applies
+ * the deltas after that; reading the steps in order continues from the
+ * step read before instead.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class StepLogReader implements Closeable
+{
+    // The file being read.
+    private final FileChannel channel;
+    // The depth and width of the ocean.
+    private final int depth, width;
+    // The first step in the log.
+    private final int firstStep;
+    // Per step from the first, where its frame starts.
+    private final long[] offsets;
+    // Per step from the first, whether its frame is a keyframe.
+    private final boolean[] keyframes;
+    // The species of every cell at the step read last.
+    private final byte[] current;
+    // The step read last, or -1.
+    private int currentStep;
+
+    /**
+     * Open a step log.
+     * @param file The file.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a step log.
+     */
+    public StepLogReader(Path file) throws IOException
+    {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, StepLog.HEADER_SIZE);
+            if(header.getInt() != StepLog.MAGIC) {
+                throw new IllegalArgumentException("Not a step log");
+            }
+            if(header.getInt() != StepLog.VERSION) {
+                throw new IllegalArgumentException("Unknown step log version");
+            }
+            depth = header.getInt();
+            width = header.getInt();
+
+            // Find the frames; a frame cut short by a crash is left out.
+            long[] found = new long[1024];
+            boolean[] isKey = new boolean[found.length];
+            int frames = 0;
+            int first = 0;
+            long position = StepLog.HEADER_SIZE;
+            while(position + StepLog.FRAME_HEADER_SIZE <= channel.size()) {
+                ByteBuffer frame = read(position, StepLog.FRAME_HEADER_SIZE);
+                byte type = frame.get();
+                int step = frame.getInt();
+                int length = frame.getInt();
+                if(position + StepLog.FRAME_HEADER_SIZE + length > channel.size()) {
+                    break;
+                }
+                if(frames == 0) {
+                    first = step;
+                }
+                if(frames == found.length) {
+                    found = Arrays.copyOf(found, 2 * frames);
+                    isKey = Arrays.copyOf(isKey, 2 * frames);
+                }
+                found[frames] = position;
+                isKey[frames] = type == StepLog.KEYFRAME;
+                frames++;
+                position += StepLog.FRAME_HEADER_SIZE + length;
+            }
+            firstStep = first;
+            offsets = Arrays.copyOf(found, frames);
+            keyframes = Arrays.copyOf(isKey, frames);
+        }
+        catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        current = new byte[depth * width];
+        currentStep = -1;
+    }
+
+    /**
+     * @return The depth of the ocean.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @return The width of the ocean.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return The first step in the log.
+     */
+    public int getFirstStep()
+    {
+        return firstStep;
+    }
+
+    /**
+     * @return The last step in the log, or one before the first if it is empty.
+     */
+    public int getLastStep()
+    {
+        return firstStep + offsets.length - 1;
+    }
+
+    /**
+     * Rebuild the ocean of a step.
+     * @param step The step, getFirstStep() <= step <= getLastStep().
+     * @return The ocean of that step.
+     * @throws IOException If the file cannot be read.
+     */
+    public OceanView read(int step) throws IOException
+    {
+        if(step < getFirstStep() || step > getLastStep()) {
+            throw new IllegalArgumentException("Step " + step + " is not in the log");
+        }
+        int index = step - firstStep;
+        int from = index;
+        while(!keyframes[from]) {
+            from--;
+        }
+        if(currentStep >= 0 && currentStep <= step && currentStep - firstStep >= from) {
+            // Continue from the step read last.
+            from = currentStep - firstStep + 1;
+        }
+        for(int i = from; i <= index; i++) {
+            apply(i);
+        }
+        currentStep = step;
+        return new ReplayOcean(depth, width, current.clone());
+    }
+
+    /**
+     * Close the log.
+     * @throws IOException If closing fails.
+     */
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Apply a frame to the current cells.
+     * @param index The index of the frame.
+     */
+    private void apply(int index) throws IOException
+    {
+        ByteBuffer header = read(offsets[index], StepLog.FRAME_HEADER_SIZE);
+        header.position(5);
+        int length = header.getInt();
+        ByteBuffer payload = read(offsets[index] + StepLog.FRAME_HEADER_SIZE, length);
+        if(keyframes[index]) {
+            payload.get(current);
+        }
+        else {
+            int changes = StepLog.getVarint(payload);
+            int cell = -1;
+            for(int i = 0; i < changes; i++) {
+                cell += StepLog.getVarint(payload);
+                current[cell] = payload.get();
+            }
+        }
+    }
+
+    /**
+     * Read part of the file.
+     * @param position Where the part starts.
+     * @param length The length of the part.
+     * @return The part, ready to be read.
+     */
+    private ByteBuffer read(long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The step log ends early");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,293 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a simulation split into strips of rows across several worker
+ * processes on this host, one StripWorker per strip, for oceans too big
+ * for the memory or cores of one process. The coordinator hands each
+ * worker the creatures of its strip from a checkpoint, then drives the
+ * steps and gathers the population counts; the workers exchange the rows
+ * at the borders of their strips with each other after every phase of a
+ * step. The run goes on exactly as the checkpoint would on the compact
+ * engine with a chunked ocean, whatever the number of workers.
+ *
+ * All connections are over TCP on the loopback interface, in a compact
+ * binary protocol: a worker says the magic number and the port it listens
+ * on for the worker above; it is given its strip, the port of the worker
+ * below and the checkpoint of the strip and its halo; after that each
+ * command is one byte. Workers that do not quit in time are killed.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class StripCoordinator implements Closeable
+{
+    // Marks the protocol, "OCST".
+    static final int MAGIC = 0x4F435354;
+    // The commands of the coordinator: step, get the species, quit.
+    static final int STEP = 'S';
+    static final int GET = 'G';
+    static final int QUIT = 'Q';
+    // The reply of a worker with its counts, after joining or a step.
+    static final int COUNTS = 'C';
+    // The time workers have to join, and to quit, in seconds.
+    private static final int TIMEOUT = 60;
+
+    // The depth and width of the ocean.
+    private final int depth, width;
+    // The first row of each strip, and the depth after the last.
+    private final int[] firstRows;
+    // The worker processes, and the streams to and from them, by strip.
+    private final List<Process> processes;
+    private final DataInputStream[] ins;
+    private final DataOutputStream[] outs;
+    private final Socket[] sockets;
+    // The step the simulation is at.
+    private int step;
+    // The number of creatures of each species.
+    private final int[] counts;
+
+    /**
+     * Start workers on this host and hand them a simulation.
+     * @param checkpoint The state of the simulation.
+     * @param workers The number of workers, at most the number of rows
+     *                of chunks of the ocean; positive.
+     * @throws IOException If a worker cannot be started or joined.
+     * @throws IllegalArgumentException If there are too many workers.
+     */
+    public StripCoordinator(Checkpoint checkpoint, int workers) throws IOException
+    {
+        assert workers > 0 : "Number of workers not positive";
+
+        depth = checkpoint.getDepth();
+        width = checkpoint.getWidth();
+        int tileRows = (depth + ArrayOcean.CHUNK_SIZE - 1) / ArrayOcean.CHUNK_SIZE;
+        if(workers > tileRows) {
+            throw new IllegalArgumentException("At most " + tileRows + " workers for a depth of "
+                                               + depth);
+        }
+        // Strips of whole rows of chunks, as even as can be.
+        firstRows = new int[workers + 1];
+        for(int i = 0; i < workers; i++) {
+            firstRows[i] = i * tileRows / workers * ArrayOcean.CHUNK_SIZE;
+        }
+        firstRows[workers] = depth;
+        step = checkpoint.getStep();
+        counts = new int[Species.COUNT];
+        processes = new ArrayList<Process>();
+        ins = new DataInputStream[workers];
+        outs = new DataOutputStream[workers];
+        sockets = new Socket[workers];
+
+        try {
+            start(checkpoint);
+        }
+        catch(IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Start the workers, and hand them their strips once they joined.
+     */
+    private void start(Checkpoint checkpoint) throws IOException
+    {
+        int workers = ins.length;
+        int[] peerPorts = new int[workers];
+        try(ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(TIMEOUT * 1000);
+            String java = System.getProperty("java.home") + File.separator + "bin"
+                          + File.separator + "java";
+            for(int i = 0; i < workers; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                                 "StripWorker",
+                                                 Integer.toString(server.getLocalPort()))
+                              .inheritIO().start());
+            }
+            // Strips go to the workers in the order they join.
+            for(int i = 0; i < workers; i++) {
+                sockets[i] = server.accept();
+                sockets[i].setTcpNoDelay(true);
+                ins[i] = new DataInputStream(new BufferedInputStream(sockets[i].getInputStream()));
+                outs[i] = new DataOutputStream(new BufferedOutputStream(sockets[i].getOutputStream()));
+                if(ins[i].readInt() != MAGIC) {
+                    throw new IOException("Not a strip worker");
+                }
+                peerPorts[i] = ins[i].readInt();
+            }
+        }
+        for(int i = 0; i < workers; i++) {
+            int firstRow = firstRows[i];
+            int endRow = firstRows[i + 1];
+            ByteBuffer strip = checkpoint.rows(Math.max(firstRow - 1, 0),
+                                               Math.min(endRow + 1, depth)).encoded();
+            outs[i].writeInt(firstRow);
+            outs[i].writeInt(endRow);
+            outs[i].writeInt(i + 1 < workers ? peerPorts[i + 1] : 0);
+            outs[i].writeInt(strip.remaining());
+            outs[i].write(strip.array(), strip.arrayOffset(), strip.remaining());
+            outs[i].flush();
+        }
+        readCounts();
+    }
+
+    /**
+     * Run the simulation for a single step, on all workers.
+     * @throws IOException If a worker fails.
+     */
+    public void simulateOneStep() throws IOException
+    {
+        for(DataOutputStream out : outs) {
+            out.write(STEP);
+            out.flush();
+        }
+        step++;
+        readCounts();
+    }
+
+    /**
+     * Read the counts of all workers, after they joined or stepped.
+     */
+    private void readCounts() throws IOException
+    {
+        int[] total = new int[Species.COUNT];
+        for(DataInputStream in : ins) {
+            if(in.read() != COUNTS) {
+                throw new IOException("A strip worker did not send its counts");
+            }
+            for(int s = 1; s < Species.COUNT; s++) {
+                total[s] += in.readInt();
+            }
+        }
+        System.arraycopy(total, 0, counts, 0, Species.COUNT);
+    }
+
+    /**
+     * Return the step the simulation is at.
+     * @return The step.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * Return the number of creatures of a species.
+     * @param s A species id.
+     * @return The number of creatures of that species in the ocean.
+     */
+    public int getCount(int s)
+    {
+        return counts[s];
+    }
+
+    /**
+     * Gather the species in every cell from the workers.
+     * @return The ocean as it is now.
+     * @throws IOException If a worker fails.
+     */
+    public ReplayOcean snapshot() throws IOException
+    {
+        for(DataOutputStream out : outs) {
+            out.write(GET);
+            out.flush();
+        }
+        byte[] species = new byte[depth * width];
+        for(int i = 0; i < ins.length; i++) {
+            ins[i].readFully(species, firstRows[i] * width,
+                             (firstRows[i + 1] - firstRows[i]) * width);
+        }
+        return new ReplayOcean(depth, width, species);
+    }
+
+    /**
+     * Tell the workers to quit and wait for them, killing those that
+     * do not quit in time.
+     * @throws IOException If a connection cannot be closed.
+     */
+    public void close() throws IOException
+    {
+        for(int i = 0; i < outs.length; i++) {
+            if(outs[i] != null) {
+                try {
+                    outs[i].write(QUIT);
+                    outs[i].flush();
+                }
+                catch(IOException e) {
+                    // The worker is gone already.
+                }
+            }
+        }
+        try {
+            for(Process process : processes) {
+                if(!process.waitFor(TIMEOUT, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for(Process process : processes) {
+                process.destroyForcibly();
+            }
+        }
+        finally {
+            for(Socket socket : sockets) {
+                if(socket != null) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Populate a chunked ocean as the Simulator would, run it on several
+     * workers and write the step and the count of each species as CSV.
+     * @param args The depth and width of the ocean, the number of workers
+     *             and the number of steps.
+     * @throws IOException If a worker fails.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 4) {
+            System.err.println("Usage: java StripCoordinator depth width workers steps");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[0]);
+        int width = Integer.parseInt(args[1]);
+        int workers = Integer.parseInt(args[2]);
+        int steps = Integer.parseInt(args[3]);
+        Simulator simulator = new Simulator(new MyFactory(), new MockView(),
+                                            new ArrayOcean(depth, width, true));
+        try(StripCoordinator coordinator =
+                new StripCoordinator(Checkpoint.capture(simulator), workers)) {
+            StringBuilder line = new StringBuilder("step");
+            for(int s = 1; s < Species.COUNT; s++) {
+                line.append(',').append(Species.classOf(s).getName());
+            }
+            System.out.println(line);
+            for(int step = 0; step < steps; step++) {
+                coordinator.simulateOneStep();
+                line.setLength(0);
+                line.append(coordinator.getStep());
+                for(int s = 1; s < Species.COUNT; s++) {
+                    line.append(',').append(coordinator.getCount(s));
+                }
+                System.out.println(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+/**
+ * A process that simulates one strip of an ocean for a StripCoordinator.
+ * The strip is a band of whole rows of tiles; the worker keeps it in a
+ * chunked ArrayOcean of the size of the whole ocean, together with the
+ * row next to it on either side, its halo. It steps only its own tiles,
+ * in the four phases of a TileGrid. After each phase the rows at each
+ * border are brought up to date on both sides: of two neighbouring
+ * strips, only the one whose tiles next to the border ran in the phase
+ * can have changed them, so it sends its last (or first) row and the
+ * halo row to the other, which replaces its copies. The strips thus step
+ * exactly as the whole ocean would, chunked, in one process.
+ *
+ * A worker talks to the coordinator over one connection and to the
+ * workers of the strips above and below over one connection each, all
+ * on the loopback interface.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class StripWorker
+{
+    // The streams to and from the coordinator.
+    private final DataInputStream coordinatorIn;
+    private final DataOutputStream coordinatorOut;
+    // The streams to and from the workers above and below, or null.
+    private DataInputStream upIn, downIn;
+    private DataOutputStream upOut, downOut;
+    // The ocean, holding the strip and its halo.
+    private ArrayOcean cells;
+    // The first row of the strip, and the row after it.
+    private int firstRow, endRow;
+    // The step the strip is at, and the seed of the simulation.
+    private int step;
+    private long seed;
+    // The buffer rows are written to and read from.
+    private ByteBuffer row;
+
+    /**
+     * Create a worker talking to a coordinator.
+     * @param coordinator The connection to the coordinator.
+     * @throws IOException If the connection fails.
+     */
+    private StripWorker(Socket coordinator) throws IOException
+    {
+        coordinatorIn = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+        coordinatorOut = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+    }
+
+    /**
+     * Introduce this worker, take the strip assigned to it and connect
+     * to the workers of the neighbouring strips.
+     * @throws IOException If a connection fails or the assignment is wrong.
+     */
+    private void join() throws IOException
+    {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try(ServerSocket peers = new ServerSocket(0, 1, loopback)) {
+            coordinatorOut.writeInt(StripCoordinator.MAGIC);
+            coordinatorOut.writeInt(peers.getLocalPort());
+            coordinatorOut.flush();
+
+            firstRow = coordinatorIn.readInt();
+            endRow = coordinatorIn.readInt();
+            int downPort = coordinatorIn.readInt();
+            byte[] encoded = new byte[coordinatorIn.readInt()];
+            coordinatorIn.readFully(encoded);
+            Checkpoint strip = Checkpoint.decode(ByteBuffer.wrap(encoded));
+            cells = new ArrayOcean(strip.getDepth(), strip.getWidth(), true);
+            strip.restore(cells);
+            step = strip.getStep();
+            seed = strip.getSeed();
+            row = ByteBuffer.allocate(4 + cells.getWidth() * ArrayOcean.ROW_RECORD_SIZE);
+
+            // The worker below is listening already, so connect first.
+            if(endRow < cells.getDepth()) {
+                Socket down = new Socket(loopback, downPort);
+                down.setTcpNoDelay(true);
+                downIn = new DataInputStream(new BufferedInputStream(down.getInputStream()));
+                downOut = new DataOutputStream(new BufferedOutputStream(down.getOutputStream()));
+            }
+            if(firstRow > 0) {
+                Socket up = peers.accept();
+                up.setTcpNoDelay(true);
+                upIn = new DataInputStream(new BufferedInputStream(up.getInputStream()));
+                upOut = new DataOutputStream(new BufferedOutputStream(up.getOutputStream()));
+            }
+        }
+        sendCounts();
+    }
+
+    /**
+     * Carry out the commands of the coordinator until told to quit.
+     * @throws IOException If a connection fails or a command is unknown.
+     */
+    private void serve() throws IOException
+    {
+        while(true) {
+            int command = coordinatorIn.read();
+            switch(command) {
+                case StripCoordinator.STEP:
+                    step++;
+                    cells.simulateOneStep(null, Randomizer.derive(seed, step), firstRow, endRow,
+                                          this::exchange);
+                    sendCounts();
+                    break;
+                case StripCoordinator.GET:
+                    int width = cells.getWidth();
+                    for(int cell = firstRow * width; cell < endRow * width; cell++) {
+                        coordinatorOut.write(cells.getSpeciesAt(cell));
+                    }
+                    coordinatorOut.flush();
+                    break;
+                case StripCoordinator.QUIT:
+                case -1:
+                    return;
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+        }
+    }
+
+    /**
+     * Bring the rows at the borders of the strip up to date after a phase
+     * of a step. All rows are sent before any is received, so workers
+     * sending to each other in a line never wait for each other.
+     * @param phase The phase just run.
+     */
+    private void exchange(int phase)
+    {
+        try {
+            boolean sendUp = upOut != null && runsIn(firstRow, phase);
+            boolean sendDown = downOut != null && runsIn(endRow - 1, phase);
+            if(sendUp) {
+                sendRows(upOut, firstRow - 1);
+            }
+            if(sendDown) {
+                sendRows(downOut, endRow - 1);
+            }
+            if(upIn != null && !sendUp) {
+                receiveRows(upIn, firstRow - 1);
+            }
+            if(downIn != null && !sendDown) {
+                receiveRows(downIn, endRow - 1);
+            }
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Whether the tiles of a row of cells run in a phase.
+     */
+    private static boolean runsIn(int row, int phase)
+    {
+        return (row / ArrayOcean.CHUNK_SIZE) % 2 == TileGrid.rowParity(phase);
+    }
+
+    /**
+     * Send the two rows at a border.
+     * @param out The stream to the worker on the other side.
+     * @param first The upper of the two rows.
+     */
+    private void sendRows(DataOutputStream out, int first) throws IOException
+    {
+        for(int r = first; r < first + 2; r++) {
+            row.clear();
+            cells.writeRow(r, row);
+            out.writeInt(row.position());
+            out.write(row.array(), 0, row.position());
+        }
+        out.flush();
+    }
+
+    /**
+     * Receive the two rows at a border, replacing those held.
+     * @param in The stream from the worker on the other side.
+     * @param first The upper of the two rows.
+     */
+    private void receiveRows(DataInputStream in, int first) throws IOException
+    {
+        for(int r = first; r < first + 2; r++) {
+            row.clear();
+            int length = in.readInt();
+            in.readFully(row.array(), 0, length);
+            row.limit(length);
+            cells.readRow(r, row);
+        }
+    }
+
+    /**
+     * Send the coordinator the number of each species in the strip,
+     * leaving out the creatures of the halo.
+     */
+    private void sendCounts() throws IOException
+    {
+        int[] counts = new int[Species.COUNT];
+        for(int s = 1; s < Species.COUNT; s++) {
+            counts[s] = cells.getCount(s);
+        }
+        int width = cells.getWidth();
+        for(int halo : new int[] { firstRow - 1, endRow }) {
+            if(0 <= halo && halo < cells.getDepth()) {
+                for(int cell = halo * width; cell < (halo + 1) * width; cell++) {
+                    counts[cells.getSpeciesAt(cell)]--;
+                }
+            }
+        }
+        coordinatorOut.write(StripCoordinator.COUNTS);
+        for(int s = 1; s < Species.COUNT; s++) {
+            coordinatorOut.writeInt(counts[s]);
+        }
+        coordinatorOut.flush();
+    }
+
+    /**
+     * Work for the coordinator listening on a port of the loopback
+     * interface, until it says to quit or goes away.
+     * @param args The port of the coordinator.
+     * @throws IOException If a connection fails.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 1) {
+            System.err.println("Usage: java StripWorker port");
+            System.exit(2);
+        }
+        try(Socket coordinator = new Socket(InetAddress.getLoopbackAddress(),
+                                            Integer.parseInt(args[0]))) {
+            coordinator.setTcpNoDelay(true);
+            StripWorker worker = new StripWorker(coordinator);
+            worker.join();
+            worker.serve();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A definition of many simulations, read from a properties file.
+ * Each parameter takes a comma-separated list of values, and integer
+ * values may be given as a range such as 1..100; there is one run for
+ * every combination of the values. The parameters are:
+ * size (such as 100x200, or 100 for a square ocean), seed, the creation
+ * probabilities fish.creation, shark.creation, whale.creation and
+ * fisherman.creation, and the breeding constants fish.breedingAge,
+ * fish.breedingProbability and fish.maxLitterSize, likewise for shark
+ * and whale. A parameter that is not given keeps its usual value.
+ * Besides these, steps is the number of steps of each run, compact
+ * whether to run on the compact engine, and output either final for
+ * one row per run or steps for one row per step.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class Sweep
+{
+    // All parameters that can be swept, in the order of the output columns.
+    public static final String[] PARAMETERS = {
+        "size", "seed",
+        "fish.creation", "shark.creation", "whale.creation", "fisherman.creation",
+        "fish.breedingAge", "fish.breedingProbability", "fish.maxLitterSize",
+        "shark.breedingAge", "shark.breedingProbability", "shark.maxLitterSize",
+        "whale.breedingAge", "whale.breedingProbability", "whale.maxLitterSize",
+    };
+
+    // The parameters given, in the order of PARAMETERS.
+    private final List<String> parameters;
+    // The values of each parameter given.
+    private final List<String[]> values;
+    // The number of steps of each run.
+    private final int steps;
+    // Whether the runs use the compact engine.
+    private final boolean compact;
+    // Whether to output every step or only the final one.
+    private final boolean everyStep;
+
+    /**
+     * Read a sweep from a properties file.
+     * @param file The file.
+     * @return The sweep.
+     * @throws IOException If the file cannot be read.
+     */
+    public static Sweep load(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new Sweep(properties);
+    }
+
+    /**
+     * Create a sweep from its properties.
+     * @param properties The properties, as described above.
+     * @throws IllegalArgumentException If a property is unknown or malformed.
+     */
+    public Sweep(Properties properties)
+    {
+        parameters = new ArrayList<String>();
+        values = new ArrayList<String[]>();
+        for(String parameter : PARAMETERS) {
+            String list = properties.getProperty(parameter);
+            if(list != null) {
+                parameters.add(parameter);
+                values.add(expand(parameter, list));
+            }
+        }
+        for(String key : properties.stringPropertyNames()) {
+            if(!parameters.contains(key) && !key.equals("steps")
+               && !key.equals("compact") && !key.equals("output")) {
+                throw new IllegalArgumentException("Unknown sweep parameter " + key);
+            }
+        }
+        steps = Integer.parseInt(properties.getProperty("steps", "500").trim());
+        compact = Boolean.parseBoolean(properties.getProperty("compact", "false").trim());
+        String output = properties.getProperty("output", "final").trim();
+        if(!output.equals("final") && !output.equals("steps")) {
+            throw new IllegalArgumentException("Output is neither final nor steps: " + output);
+        }
+        everyStep = output.equals("steps");
+        if(steps < 0) {
+            throw new IllegalArgumentException("Negative number of steps");
+        }
+    }
+
+    /**
+     * @return The parameters given, in the order of PARAMETERS.
+     */
+    public List<String> getParameters()
+    {
+        return parameters;
+    }
+
+    /**
+     * @return The number of runs, one per combination of the values.
+     */
+    public long getRunCount()
+    {
+        long count = 1;
+        for(String[] choices : values) {
+            count *= choices.length;
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of steps of each run.
+     */
+    public int getSteps()
+    {
+        return steps;
+    }
+
+    /**
+     * @return Whether to output every step or only the final one.
+     */
+    public boolean isEveryStep()
+    {
+        return everyStep;
+    }
+
+    /**
+     * Return the values of the parameters for a run. The last parameter
+     * varies fastest.
+     * @param run The number of the run, 0 <= run < getRunCount().
+     * @return The value of each parameter given, in their order.
+     */
+    public String[] getValues(long run)
+    {
+        assert 0 <= run && run < getRunCount() : "No such run " + run;
+
+        String[] chosen = new String[values.size()];
+        for(int i = values.size() - 1; i >= 0; i--) {
+            String[] choices = values.get(i);
+            chosen[i] = choices[(int) (run % choices.length)];
+            run /= choices.length;
+        }
+        return chosen;
+    }
+
+    /**
+     * Create the simulation of a run, with a view that shows nothing.
+     * @param run The number of the run, 0 <= run < getRunCount().
+     * @return The simulation, populated and at step 0.
+     */
+    public Simulator createSimulator(long run)
+    {
+        String[] chosen = getValues(run);
+        int depth = 100, width = 100;
+        long seed = Randomizer.SEED;
+        double[] creation = { 0, MyFactory.Fish_CREATION_PROBABILITY,
+                              MyFactory.Shark_CREATION_PROBABILITY,
+                              MyFactory.Whale_CREATION_PROBABILITY,
+                              MyFactory.Fisherman_CREATION_PROBABILITY };
+        Breeding breeding = new Breeding();
+        for(int i = 0; i < chosen.length; i++) {
+            String parameter = parameters.get(i);
+            String value = chosen[i];
+            if(parameter.equals("size")) {
+                int x = value.indexOf('x');
+                depth = Integer.parseInt(x < 0 ? value : value.substring(0, x));
+                width = Integer.parseInt(x < 0 ? value : value.substring(x + 1));
+                continue;
+            }
+            if(parameter.equals("seed")) {
+                seed = Long.parseLong(value);
+                continue;
+            }
+            int dot = parameter.indexOf('.');
+            int species = Species.named(parameter.substring(0, dot));
+            String constant = parameter.substring(dot + 1);
+            if(constant.equals("creation")) {
+                creation[species] = Double.parseDouble(value);
+            }
+            else if(constant.equals("breedingAge")) {
+                breeding.setBreedingAge(species, Integer.parseInt(value));
+            }
+            else if(constant.equals("breedingProbability")) {
+                breeding.setBreedingProbability(species, Double.parseDouble(value));
+            }
+            else {
+                breeding.setMaxLitterSize(species, Integer.parseInt(value));
+            }
+        }
+        Factory factory = new MyFactory(creation[Species.SHARK], creation[Species.FISH],
+                                        creation[Species.WHALE], creation[Species.FISHERMAN]);
+        Simulator simulator = new Simulator(factory, new MockView(), depth, width, compact,
+                                            seed, CheckLevel.OFF);
+        simulator.setBreeding(breeding);
+        return simulator;
+    }
+
+    /**
+     * Split a list of values, expanding ranges, and check each value parses.
+     * @param parameter The parameter the values are for.
+     * @param list The comma-separated values.
+     * @return The values.
+     * @throws IllegalArgumentException If a value is malformed.
+     */
+    private static String[] expand(String parameter, String list)
+    {
+        List<String> expanded = new ArrayList<String>();
+        for(String item : list.split(",")) {
+            String value = item.trim();
+            int range = value.indexOf("..");
+            try {
+                if(range >= 0) {
+                    long first = Long.parseLong(value.substring(0, range).trim());
+                    long last = Long.parseLong(value.substring(range + 2).trim());
+                    for(long v = first; v <= last; v++) {
+                        expanded.add(Long.toString(v));
+                    }
+                }
+                else if(parameter.equals("size")) {
+                    for(String side : value.split("x", 2)) {
+                        if(Integer.parseInt(side) <= 0) {
+                            throw new IllegalArgumentException("Size not positive: " + value);
+                        }
+                    }
+                    expanded.add(value);
+                }
+                else {
+                    Double.parseDouble(value);
+                    expanded.add(value);
+                }
+            }
+            catch(NumberFormatException e) {
+                throw new IllegalArgumentException("Bad value of " + parameter + ": " + value);
+            }
+        }
+        if(expanded.isEmpty()) {
+            throw new IllegalArgumentException("No values of " + parameter);
+        }
+        return expanded.toArray(new String[expanded.size()]);
+    }
+}
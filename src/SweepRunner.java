@@ -0,0 +1,191 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the simulations of a sweep without any window, several at the same
+ * time, and writes their populations as CSV: one row per run, or one per
+ * step of each run. The columns are the run number, the parameters of the
+ * sweep, the step and the count of each species. Rows of different runs
+ * may be interleaved.
+ * Each simulation runs on one thread from start to end and draws from the
+ * random streams of its own seed, so runs do not disturb each other and
+ * give the same rows whatever the number of threads.
+ *
+ * Usage: java SweepRunner sweep.properties [results.csv] [threads]
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class SweepRunner
+{
+    // The number of characters a run collects before writing them out.
+    private static final int FLUSH_SIZE = 1 << 16;
+
+    // The sweep to run.
+    private final Sweep sweep;
+    // The number of simulations running at the same time.
+    private final int threads;
+    // Where the rows go; guarded by itself.
+    private Writer out;
+    // The first failure of a run, if any.
+    private volatile Throwable failure;
+
+    /**
+     * Create a runner for a sweep.
+     * @param sweep The sweep.
+     * @param threads The number of simulations to run at the same time; positive.
+     */
+    public SweepRunner(Sweep sweep, int threads)
+    {
+        assert sweep != null : "The sweep is null";
+        assert threads > 0 : "Number of threads not positive";
+
+        this.sweep = sweep;
+        this.threads = threads;
+    }
+
+    /**
+     * Run every simulation of the sweep and write the rows.
+     * At most twice as many runs as threads wait to start at any time,
+     * so a sweep of any size takes little memory.
+     * @param out Where to write the CSV; not closed.
+     * @throws IOException If writing fails.
+     * @throws InterruptedException If interrupted while waiting for runs.
+     */
+    public void run(Writer out) throws IOException, InterruptedException
+    {
+        this.out = out;
+        failure = null;
+        out.write(header());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Semaphore slots = new Semaphore(2 * threads);
+        try {
+            for(long run = 0; run < sweep.getRunCount() && failure == null; run++) {
+                slots.acquire();
+                long number = run;
+                executor.execute(() -> {
+                    try {
+                        simulate(number);
+                    }
+                    catch(Throwable e) {
+                        failure = e;
+                    }
+                    finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        }
+        out.flush();
+        if(failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if(failure != null) {
+            throw new IllegalStateException("A run of the sweep failed", failure);
+        }
+    }
+
+    /**
+     * Run one simulation of the sweep, writing its rows.
+     * It stops early once it is no longer viable.
+     * @param run The number of the run.
+     * @throws IOException If writing fails.
+     */
+    private void simulate(long run) throws IOException
+    {
+        String prefix = run + "," + String.join(",", sweep.getValues(run)) + ",";
+        Simulator simulator = sweep.createSimulator(run);
+        StringBuilder rows = new StringBuilder();
+        if(sweep.isEveryStep()) {
+            row(rows, prefix, simulator);
+        }
+        while(simulator.getStep() < sweep.getSteps() && simulator.isViable()) {
+            simulator.simulateOneStep();
+            if(sweep.isEveryStep()) {
+                row(rows, prefix, simulator);
+                if(rows.length() >= FLUSH_SIZE) {
+                    write(rows);
+                }
+            }
+        }
+        if(!sweep.isEveryStep()) {
+            row(rows, prefix, simulator);
+        }
+        write(rows);
+    }
+
+    /**
+     * Append the row of the current step of a simulation.
+     */
+    private static void row(StringBuilder rows, String prefix, Simulator simulator)
+    {
+        OceanView ocean = simulator.getOceanView();
+        rows.append(prefix).append(simulator.getStep());
+        for(int species = 1; species < Species.COUNT; species++) {
+            rows.append(',').append(ocean.getCount(species));
+        }
+        rows.append('\n');
+    }
+
+    /**
+     * Write out the rows collected and forget them.
+     */
+    private void write(StringBuilder rows) throws IOException
+    {
+        synchronized(out) {
+            out.append(rows);
+        }
+        rows.setLength(0);
+    }
+
+    /**
+     * @return The header row of the CSV.
+     */
+    private String header()
+    {
+        StringBuilder header = new StringBuilder("run,");
+        for(String parameter : sweep.getParameters()) {
+            header.append(parameter).append(',');
+        }
+        header.append("step");
+        for(int species = 1; species < Species.COUNT; species++) {
+            header.append(',').append(Species.classOf(species).getName());
+        }
+        return header.append('\n').toString();
+    }
+
+    /**
+     * Run a sweep from the command line.
+     * @param args The sweep file, optionally the CSV file (else standard
+     *             output) and the number of threads (else one per core).
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        if(args.length < 1 || args.length > 3) {
+            System.err.println("Usage: java SweepRunner sweep.properties [results.csv] [threads]");
+            System.exit(2);
+        }
+        Sweep sweep = Sweep.load(Paths.get(args[0]));
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                                       : Runtime.getRuntime().availableProcessors();
+        try(Writer out = args.length > 1
+                ? Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            new SweepRunner(sweep, threads).run(out);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A division of an ocean into square tiles, for stepping tiles in
+ * parallel. A creature only reads and writes cells at most one step
+ * away from its own, so two tiles of at least two cells that are not
+ * next to each other (not even diagonally) never touch the same cell.
+ * The tiles are coloured by the parity of their tile row and column,
+ * giving four phases in which no two tiles are next to each other.
+ * The phases run one after the other; the tiles of a phase run at the
+ * same time on a fork-join pool. Each tile draws from its own random
+ * stream, so the outcome does not depend on the number of threads.
+ *
+ * @author Gursimran Khalsa
+ * @version 17/10/2026
+ */
+public class TileGrid
+{
+    // The default side length of a tile, in cells.
+    public static final int DEFAULT_TILE_SIZE = 32;
+    // The number of phases of a step.
+    public static final int PHASES = 4;
+    // The number of tiles a fork-join task runs without splitting.
+    private static final int TILES_PER_TASK = 4;
+
+    // The depth and width of the ocean.
+    private final int depth, width;
+    // The side length of a tile.
+    private final int tileSize;
+    // The number of rows and columns of tiles.
+    private final int tileRows, tileCols;
+    // The tiles of each phase.
+    private final int[][] phases;
+
+    /**
+     * Divide an ocean into tiles.
+     * @param depth The depth of the ocean; positive.
+     * @param width The width of the ocean; positive.
+     * @param tileSize The side length of a tile; at least 2.
+     */
+    public TileGrid(int depth, int width, int tileSize)
+    {
+        assert depth > 0 && width > 0 : "The dimensions are not positive";
+        assert tileSize >= 2 : "Tiles smaller than two cells may conflict";
+
+        this.depth = depth;
+        this.width = width;
+        this.tileSize = tileSize;
+        tileRows = (depth + tileSize - 1) / tileSize;
+        tileCols = (width + tileSize - 1) / tileSize;
+
+        int[] sizes = new int[PHASES];
+        for(int tile = 0; tile < getTileCount(); tile++) {
+            sizes[phaseOf(tile)]++;
+        }
+        phases = new int[PHASES][];
+        for(int phase = 0; phase < PHASES; phase++) {
+            phases[phase] = new int[sizes[phase]];
+            sizes[phase] = 0;
+        }
+        for(int tile = 0; tile < getTileCount(); tile++) {
+            int phase = phaseOf(tile);
+            phases[phase][sizes[phase]++] = tile;
+        }
+    }
+
+    /**
+     * Run an action once for every tile, phase by phase, with the tiles
+     * of a phase running at the same time on the given pool. Before its
+     * action, a tile's thread is made to draw from the stream derived
+     * from the key and the tile number.
+     * @param pool The pool to run on, or null to run on the calling thread.
+     * @param key The key of the random streams, such as the step's key.
+     * @param action The action, given the tile number.
+     */
+    public void runPhases(ForkJoinPool pool, long key, IntConsumer action)
+    {
+        for(int phase = 0; phase < PHASES; phase++) {
+            run(pool, key, phases[phase], phases[phase].length, action);
+        }
+    }
+
+    /**
+     * Run an action once for some of the tiles, as runPhases does for all.
+     * A tile left out draws nothing from its stream, so as long as the
+     * action would do nothing on the tiles left out, the outcome is the
+     * same as running all of them.
+     * @param pool The pool to run on, or null to run on the calling thread.
+     * @param key The key of the random streams, such as the step's key.
+     * @param tiles The tiles to run, each once, in any order.
+     * @param count The number of tiles to run, from the start of the array.
+     * @param action The action, given the tile number.
+     * @param afterPhase Run after each phase on the calling thread, given
+     *                   the phase; or null.
+     */
+    public void runPhases(ForkJoinPool pool, long key, int[] tiles, int count,
+                          IntConsumer action, IntConsumer afterPhase)
+    {
+        int[][] chosen = new int[PHASES][];
+        int[] sizes = new int[PHASES];
+        for(int i = 0; i < count; i++) {
+            sizes[phaseOf(tiles[i])]++;
+        }
+        for(int phase = 0; phase < PHASES; phase++) {
+            chosen[phase] = new int[sizes[phase]];
+            sizes[phase] = 0;
+        }
+        for(int i = 0; i < count; i++) {
+            int phase = phaseOf(tiles[i]);
+            chosen[phase][sizes[phase]++] = tiles[i];
+        }
+        for(int phase = 0; phase < PHASES; phase++) {
+            run(pool, key, chosen[phase], sizes[phase], action);
+            if(afterPhase != null) {
+                afterPhase.accept(phase);
+            }
+        }
+    }
+
+    /**
+     * Return the parity of the rows of tiles that run in a phase; the
+     * tiles of the other rows do not run in it.
+     * @param phase The phase, 0 <= phase < PHASES.
+     * @return 0 for the even rows of tiles, 1 for the odd ones.
+     */
+    public static int rowParity(int phase)
+    {
+        return phase / 2;
+    }
+
+    /**
+     * Run an action for the tiles of one phase, at the same time.
+     * @param pool The pool to run on, or null to run on the calling thread.
+     * @param key The key of the random streams.
+     * @param tiles The tiles of the phase.
+     * @param count The number of tiles to run, from the start of the array.
+     * @param action The action, given the tile number.
+     */
+    private static void run(ForkJoinPool pool, long key, int[] tiles, int count,
+                            IntConsumer action)
+    {
+        IntConsumer seeded = tile -> {
+            Randomizer.use(Randomizer.derive(key, tile));
+            action.accept(tile);
+        };
+        if(pool == null) {
+            for(int i = 0; i < count; i++) {
+                seeded.accept(tiles[i]);
+            }
+        }
+        else {
+            pool.invoke(new PhaseTask(tiles, 0, count, seeded));
+        }
+    }
+
+    /**
+     * @return The number of tiles.
+     */
+    public int getTileCount()
+    {
+        return tileRows * tileCols;
+    }
+
+    /**
+     * @return The side length of a tile.
+     */
+    public int getTileSize()
+    {
+        return tileSize;
+    }
+
+    /**
+     * Return the tile holding a cell.
+     * @param cell The index of the cell, row * width + col.
+     * @return The tile number.
+     */
+    public int tileOf(int cell)
+    {
+        int row = cell / width;
+        return tileAt(row, cell - row * width);
+    }
+
+    /**
+     * Return the tile holding a location.
+     * @param row The row of the location.
+     * @param col The column of the location.
+     * @return The tile number.
+     */
+    public int tileAt(int row, int col)
+    {
+        return (row / tileSize) * tileCols + col / tileSize;
+    }
+
+    /**
+     * @return The first row of a tile.
+     */
+    public int firstRow(int tile)
+    {
+        return (tile / tileCols) * tileSize;
+    }
+
+    /**
+     * @return The row after the last row of a tile.
+     */
+    public int endRow(int tile)
+    {
+        return Math.min(firstRow(tile) + tileSize, depth);
+    }
+
+    /**
+     * @return The first column of a tile.
+     */
+    public int firstCol(int tile)
+    {
+        return (tile % tileCols) * tileSize;
+    }
+
+    /**
+     * @return The column after the last column of a tile.
+     */
+    public int endCol(int tile)
+    {
+        return Math.min(firstCol(tile) + tileSize, width);
+    }
+
+    /**
+     * Return the phase in which a tile runs.
+     * @param tile The tile number.
+     * @return The phase, 0 <= phase < PHASES.
+     */
+    private int phaseOf(int tile)
+    {
+        return ((tile / tileCols) % 2) * 2 + (tile % tileCols) % 2;
+    }
+
+    /**
+     * Runs the action for a range of the tiles of one phase,
+     * splitting the range while it is large.
+     */
+    private static class PhaseTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] tiles;
+        private final int from, to;
+        private final IntConsumer action;
+
+        PhaseTask(int[] tiles, int from, int to, IntConsumer action)
+        {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        protected void compute()
+        {
+            if(to - from <= TILES_PER_TASK) {
+                for(int i = from; i < to; i++) {
+                    action.accept(tiles[i]);
+                }
+            }
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PhaseTask(tiles, from, middle, action),
+                          new PhaseTask(tiles, middle, to, action));
+            }
+        }
+    }
+}